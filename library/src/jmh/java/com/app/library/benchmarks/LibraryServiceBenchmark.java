@@ -0,0 +1,181 @@
+package com.app.library.benchmarks;
+
+import com.app.library.LibraryApplication;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.services.CatalogSearchIndex;
+import com.app.library.services.LibraryService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// JMH benchmarks for the LibraryService hot paths, single-threaded and under contention.
+// The trial starts the application without a web server on its own in-memory database and seeds it
+// in bulk with SQL (books, members, borrowing records; about 10% of loans still open).
+// The default dataset is 1M books, 100k members and 5M records; pass e.g.
+// -Djmh.args="-p books=10000 -p members=1000 -p records=50000" for a quick run.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class LibraryServiceBenchmark {
+
+    // Borrowing records start on this date and spread over ~5.5 years
+    private static final LocalDate FIRST_BORROW_DATE = LocalDate.of(2020, 1, 1);
+    private static final int BORROW_DATE_SPREAD_DAYS = 2000;
+
+    // allocationSize of the entity id sequences
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    // Books targeted by the *Contended benchmarks
+    private static final int HOT_BOOKS = 16;
+
+    @Param("1000000")
+    public int books;
+
+    @Param("100000")
+    public int members;
+
+    @Param("5000000")
+    public int records;
+
+    private ConfigurableApplicationContext context;
+    private LibraryService libraryService;
+
+    @Setup(Level.Trial)
+    public void startAndSeed() {
+        SpringApplication application = new SpringApplication(LibraryApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        // The search index loaded on startup, before the seed; load it again from the seeded tables
+        context.getBean(CatalogSearchIndex.class).rebuild();
+        libraryService = context.getBean(LibraryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("insert into books (id, title, author, publication_year, genre, available_copies) "
+                + "select x, 'Title ' || x, 'Author ' || mod(x, 20000), 1900 + mod(x, 125), 'Genre ' || mod(x, 40), 1000000 "
+                + "from system_range(1, " + books + ")");
+        jdbc.update("insert into members (id, name, email, phone_number, start_date, end_date) "
+                + "select x, 'Member ' || x, 'member' || x || '@example.com', '555-' || x, date '2020-01-01', date '2030-01-01' "
+                + "from system_range(1, " + members + ")");
+        // Book ids are scattered with a multiplicative step so loans are not clustered on low ids
+        jdbc.update("insert into borrowing_records (id, book_id, member_id, borrow_date, due_date, return_date) "
+                + "select x, mod(x * 7919, " + books + ") + 1, mod(x, " + members + ") + 1, d, dateadd('DAY', 14, d), "
+                + "case when mod(x, 10) = 0 then null else dateadd('DAY', mod(x, 20), d) end "
+                + "from (select x, dateadd('DAY', mod(x, " + BORROW_DATE_SPREAD_DAYS + "), date '2020-01-01') d "
+                + "from system_range(1, " + records + "))");
+        // Move the id sequences past the seeded rows. Hibernate's pooled optimizer hands out the
+        // block (value - 50, value], so the next value must be at least one allocation past the max id.
+        jdbc.execute("alter sequence books_seq restart with " + (books + ID_ALLOCATION_SIZE));
+        jdbc.execute("alter sequence members_seq restart with " + (members + ID_ALLOCATION_SIZE));
+        jdbc.execute("alter sequence borrowing_records_seq restart with " + (records + ID_ALLOCATION_SIZE));
+        jdbc.execute("analyze");
+    }
+
+    private long randomBook() {
+        return ThreadLocalRandom.current().nextLong(1, books + 1);
+    }
+
+    private long hotBook() {
+        return ThreadLocalRandom.current().nextLong(1, HOT_BOOKS + 1);
+    }
+
+    private LocalDate randomDueDate() {
+        return FIRST_BORROW_DATE.plusDays(14 + ThreadLocalRandom.current().nextInt(BORROW_DATE_SPREAD_DAYS));
+    }
+
+    private void borrowAndReturn(long bookId, Blackhole blackhole) {
+        BorrowingRecord record = new BorrowingRecord(bookId, 1L + bookId % members, LocalDate.now(), null);
+        libraryService.borrowBook(record);
+        libraryService.returnBook(record.getId(), LocalDate.now());
+        blackhole.consume(record);
+    }
+
+    // ==================== Single-threaded ====================
+
+    @Benchmark
+    public Object getBookById() {
+        return libraryService.getBookById(randomBook());
+    }
+
+    @Benchmark
+    public Object checkAvailability() {
+        return libraryService.checkAvailability(randomBook());
+    }
+
+    @Benchmark
+    public Object getBooksDueOnDate() {
+        return libraryService.getBooksDueOnDate(randomDueDate());
+    }
+
+    @Benchmark
+    public Object getBooksPage() {
+        return libraryService.getBooksPage(null, null, randomBook(), 100);
+    }
+
+    // Typeahead: a title word plus a short author prefix, e.g. "title 4711 auth"
+    @Benchmark
+    public Object searchBooks() {
+        return libraryService.searchBooks("title " + randomBook() + " auth", 10);
+    }
+
+    @Benchmark
+    public void borrowAndReturnBook(Blackhole blackhole) {
+        borrowAndReturn(randomBook(), blackhole);
+    }
+
+    // ==================== Contended ====================
+
+    @Benchmark
+    @Threads(8)
+    public Object checkAvailabilityContended() {
+        return libraryService.checkAvailability(randomBook());
+    }
+
+    // Borrows spread over the whole catalog: should scale with threads
+    @Benchmark
+    @Threads(8)
+    public void borrowAndReturnSpreadContended(Blackhole blackhole) {
+        borrowAndReturn(randomBook(), blackhole);
+    }
+
+    // Borrows concentrated on a handful of hot titles: measures row contention
+    @Benchmark
+    @Threads(8)
+    public void borrowAndReturnHotContended(Blackhole blackhole) {
+        borrowAndReturn(hotBook(), blackhole);
+    }
+}
@@ -0,0 +1,333 @@
+package com.app.library.loadtest;
+
+import com.app.library.seed.Popularity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// HTTP load driver for a locally started application (run it with the seed profile so the ids exist).
+// Workers on virtual threads replay a weighted mix of catalog pages, borrows, returns and
+// availability checks, picking books by the same Zipfian popularity the seed generator used and
+// returning only loans they opened themselves. With rate=0 each worker sends its next request as
+// soon as the last one completes (closed loop); with rate=N requests are scheduled N per second in
+// total and latency is measured from the scheduled time, so a stalled server shows up in the
+// percentiles instead of silently lowering the request rate. Requests in the warmup are not counted.
+// Prints throughput, error rate and latency percentiles per endpoint and writes them as JSON.
+//
+// Options (key=value): url, duration and warmup (seconds), concurrency, rate, mix (e.g.
+// books:40,borrow:20,return:20,availability:20), page-size, books, members, zipf and seed (as in
+// application-seed.properties), out (JSON result file).
+public class LoadDriver {
+
+    enum Endpoint {
+        BOOKS("GET /api/books"),
+        BORROW("POST /api/borrow"),
+        RETURN("PUT /api/return/{recordId}"),
+        AVAILABILITY("GET /api/bookavailabileDate");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    // Outcome counters and latency histogram (microseconds) of one endpoint
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        void record(String outcome, boolean error, long micros) {
+            requests.increment();
+            if (error) {
+                errors.increment();
+            }
+            outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+            latency.recordValue(Math.min(micros, latency.getHighestTrackableValue()));
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, String> options;
+    private final String url;
+    private final int concurrency;
+    private final double rate;
+    private final int pageSize;
+    private final int members;
+    private final long seed;
+    private final Popularity popularity;
+    private final Endpoint[] mix;
+    private final HttpClient client;
+
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    // Loans opened by this run that are not returned yet
+    private final ConcurrentLinkedQueue<Long> openLoans = new ConcurrentLinkedQueue<>();
+
+    LoadDriver(Map<String, String> options) {
+        this.options = options;
+        url = option("url", "http://localhost:8080");
+        concurrency = Integer.parseInt(option("concurrency", "32"));
+        rate = Double.parseDouble(option("rate", "0"));
+        pageSize = Integer.parseInt(option("page-size", "20"));
+        members = Integer.parseInt(option("members", "20000"));
+        seed = Long.parseLong(option("seed", "42"));
+        popularity = new Popularity(Integer.parseInt(option("books", "100000")),
+                Double.parseDouble(option("zipf", "1.0")), seed);
+        mix = parseMix(option("mix", "books:40,borrow:20,return:20,availability:20"));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    private String option(String key, String defaultValue) {
+        return options.getOrDefault(key, defaultValue);
+    }
+
+    // The mix as a table of 100 slots, each endpoint taking as many as its share of the weights
+    private static Endpoint[] parseMix(String spec) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        int total = 0;
+        for (String part : spec.split(",")) {
+            String[] entry = part.trim().split(":");
+            int weight = Integer.parseInt(entry[1].trim());
+            weights.merge(Endpoint.valueOf(entry[0].trim().toUpperCase().replace('-', '_')), weight, Integer::sum);
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Mix has no weight: " + spec);
+        }
+        List<Endpoint> slots = new ArrayList<>();
+        for (Map.Entry<Endpoint, Integer> entry : weights.entrySet()) {
+            long share = Math.round(entry.getValue() * 100.0 / total);
+            for (int i = 0; i < share; i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        return slots.toArray(new Endpoint[0]);
+    }
+
+    // ==================== Run ====================
+
+    void run() throws Exception {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "10")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "60")));
+        send(request("/api/books?limit=1").GET().build());
+
+        System.out.println("Driving " + url + " with " + concurrency + " workers"
+                + (rate > 0 ? " at " + rate + " req/s" : " (closed loop)") + " for " + durationNanos / 1_000_000_000
+                + " s after " + warmupNanos / 1_000_000_000 + " s warmup");
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                workers.execute(() -> work(worker, start, measureFrom, end));
+            }
+        }
+        double seconds = durationNanos / 1e9;
+        returnOpenLoans();
+        report(seconds);
+    }
+
+    private void work(int worker, long start, long measureFrom, long end) {
+        SplittableRandom random = new SplittableRandom(seed + 1 + worker);
+        // Each worker sends every concurrency-th request of the schedule
+        long interval = rate > 0 ? (long) (1e9 * concurrency / rate) : 0;
+        long intended = start + (rate > 0 ? interval * worker / concurrency : 0);
+        while (true) {
+            if (rate > 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+            if (intended >= end) {
+                return;
+            }
+            Endpoint endpoint = mix[random.nextInt(mix.length)];
+            Long recordId = null;
+            if (endpoint == Endpoint.RETURN) {
+                recordId = openLoans.poll();
+                if (recordId == null) {
+                    endpoint = Endpoint.BORROW;
+                }
+            }
+            String outcome;
+            boolean error;
+            try {
+                HttpResponse<String> response = send(request(endpoint, random, recordId));
+                int status = response.statusCode();
+                outcome = String.valueOf(status);
+                error = status >= 400;
+                if (endpoint == Endpoint.BORROW && status == 201) {
+                    openLoans.add(objectMapper.readTree(response.body()).get("id").asLong());
+                } else if (endpoint == Endpoint.RETURN && status >= 500) {
+                    // Not returned: let someone try again
+                    openLoans.add(recordId);
+                }
+            } catch (IOException e) {
+                outcome = e.getClass().getSimpleName();
+                error = true;
+                if (recordId != null) {
+                    openLoans.add(recordId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (intended >= measureFrom) {
+                stats.get(endpoint).record(outcome, error, (System.nanoTime() - intended) / 1000);
+            }
+            intended += interval;
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint, SplittableRandom random, Long recordId) {
+        return switch (endpoint) {
+            case BOOKS -> request("/api/books?limit=" + pageSize
+                    + "&after=" + (popularity.sample(random) - 1)).GET().build();
+            case BORROW -> {
+                int member = 1 + random.nextInt(members);
+                yield request("/api/borrow")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"bookId\":" + popularity.sample(random)
+                                + ",\"memberId\":" + member + "}"))
+                        .build();
+            }
+            case RETURN -> request("/api/return/" + recordId)
+                    .PUT(HttpRequest.BodyPublishers.noBody()).build();
+            case AVAILABILITY -> request("/api/bookavailabileDate?bookId="
+                    + popularity.sample(random)).GET().build();
+        };
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(url + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Put back the copies this run still holds, so the next run starts from the same stock
+    private void returnOpenLoans() throws InterruptedException {
+        int returned = 0;
+        for (Long recordId = openLoans.poll(); recordId != null; recordId = openLoans.poll()) {
+            try {
+                send(request("/api/return/" + recordId)
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build());
+                returned++;
+            } catch (IOException e) {
+                // Left open; the report is unaffected
+            }
+        }
+        System.out.println("Returned " + returned + " loans still open at the end of the run");
+    }
+
+    // ==================== Report ====================
+
+    private void report(double seconds) throws IOException {
+        System.out.printf("%n%-30s %9s %9s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "req/s",
+                "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "outcomes");
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options);
+        result.put("seconds", seconds);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Stats s = stats.get(endpoint);
+            long requests = s.requests.sum();
+            long errors = s.errors.sum();
+            totalRequests += requests;
+            totalErrors += errors;
+            Map<String, Long> outcomes = new LinkedHashMap<>();
+            s.outcomes.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> outcomes.put(entry.getKey(), entry.getValue().sum()));
+            Histogram latency = s.latency;
+            System.out.printf("%-30s %9d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", endpoint.label, requests,
+                    requests / seconds, percent(errors, requests), millis(latency, 50), millis(latency, 90),
+                    millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1000.0, outcomes);
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", requests);
+            entry.put("throughput", requests / seconds);
+            entry.put("errors", errors);
+            entry.put("errorRate", percent(errors, requests) / 100);
+            entry.put("outcomes", outcomes);
+            Map<String, Double> latencyMillis = new LinkedHashMap<>();
+            latencyMillis.put("mean", latency.getMean() / 1000.0);
+            latencyMillis.put("p50", millis(latency, 50));
+            latencyMillis.put("p90", millis(latency, 90));
+            latencyMillis.put("p99", millis(latency, 99));
+            latencyMillis.put("p99.9", millis(latency, 99.9));
+            latencyMillis.put("max", latency.getMaxValue() / 1000.0);
+            entry.put("latencyMillis", latencyMillis);
+            endpoints.put(endpoint.label, entry);
+        }
+        System.out.printf("%-30s %9d %9.1f %7.2f%%%n", "total", totalRequests, totalRequests / seconds,
+                percent(totalErrors, totalRequests));
+        result.put("endpoints", endpoints);
+
+        Path out = Path.of(option("out", "target/load-result.json"));
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.writeValue(out.toFile(), result);
+        System.out.println("Results written to " + out);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+}
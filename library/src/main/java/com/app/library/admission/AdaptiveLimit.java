@@ -0,0 +1,75 @@
+package com.app.library.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Concurrency limit of one endpoint that follows observed latency (AIMD): every request completing
+// within the latency target while the limit is in use raises it by 1/limit, i.e. by about one per
+// limit's worth of requests; a slower one cuts it by the backoff factor, at most once per target
+// interval so one burst of slow completions counts as a single signal. The limit settles just
+// below the concurrency at which the database starts queueing requests.
+final class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    // Guarded by this
+    private long lastDecreaseNanos;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - targetNanos;
+    }
+
+    // Take a slot if fewer than limit requests are in flight
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Give the slot back with the latency the request saw
+    void release(long latencyNanos) {
+        int busy = inFlight.getAndDecrement();
+        adjust(latencyNanos, busy, System.nanoTime());
+    }
+
+    // Give back a slot that was not used (the request was refused after all); no latency signal
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    // busy: requests in flight when this one completed, itself included
+    synchronized void adjust(long latencyNanos, int busy, long now) {
+        if (latencyNanos > targetNanos) {
+            if (now - lastDecreaseNanos >= targetNanos) {
+                limit = Math.max(minLimit, limit * backoff);
+                lastDecreaseNanos = now;
+            }
+        } else if (busy * 2 >= (int) limit) {
+            // Only grow a limit that is actually being used
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
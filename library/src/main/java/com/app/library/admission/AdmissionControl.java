@@ -0,0 +1,297 @@
+package com.app.library.admission;
+
+import com.app.library.models.BorrowingRecord;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+// Admission control for the write endpoints listed in library.admission.endpoints ("METHOD pattern").
+// Each endpoint has its own concurrency limit that adapts to latency (see AdaptiveLimit), and all of
+// them together may have at most library.admission.total-limit requests in flight (by default the
+// size of the write pool). A request beyond either is refused at once with 503 instead of queueing
+// for a database connection, so the requests that are admitted keep their latency during a rush.
+// For fairness, each member may have at most library.admission.per-member-limit of these writes in
+// flight, beyond that it gets 429; both carry Retry-After. The member is worked out on the server:
+// the loan's member for a {recordId} in the path, else memberId in the JSON body (borrows) or the
+// member of the first of its recordIds (batch returns). Requests naming no known member are keyed
+// by client address, so they share a cap instead of escaping it. Bodies are read up to
+// library.admission.max-body-bytes while the request holds its slots; a longer one gets 413.
+@Component
+public class AdmissionControl extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${library.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.admission.endpoints:POST /api/borrow,PUT /api/return/{recordId}}")
+    private String[] endpointSpecs;
+
+    @Value("${library.admission.initial-limit:10}")
+    private int initialLimit;
+
+    @Value("${library.admission.min-limit:2}")
+    private int minLimit;
+
+    @Value("${library.admission.max-limit:50}")
+    private int maxLimit;
+
+    @Value("${library.admission.total-limit:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int totalLimit;
+
+    @Value("${library.admission.latency-target-ms:250}")
+    private long latencyTargetMs;
+
+    @Value("${library.admission.backoff:0.9}")
+    private double backoff;
+
+    @Value("${library.admission.per-member-limit:2}")
+    private int perMemberLimit;
+
+    @Value("${library.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${library.admission.max-body-bytes:16384}")
+    private int maxBodyBytes;
+
+    // Most specific pattern first, so /api/return/batch is not taken for /api/return/{recordId}
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    // Admitted writes in flight per member (or client); entries are removed when they drop to zero
+    private final ConcurrentHashMap<String, Integer> memberInFlight = new ConcurrentHashMap<>();
+
+    record Endpoint(String key, String method, PathPattern pattern, AdaptiveLimit limit,
+                    Counter overloadRejections, Counter memberRejections, Counter sizeRejections) {
+    }
+
+    // An admitted request: its endpoint slot and member slot are given back when it completes.
+    // request is the one to pass on (its body may have been read already).
+    record Admission(Endpoint endpoint, String member, long startNanos, HttpServletRequest request) {
+    }
+
+    @PostConstruct
+    void init() {
+        for (String spec : endpointSpecs) {
+            String key = spec.trim().replaceAll("\\s+", " ");
+            String[] parts = key.split(" ", 2);
+            AdaptiveLimit limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit,
+                    TimeUnit.MILLISECONDS.toNanos(latencyTargetMs), backoff);
+            endpoints.add(new Endpoint(key, parts[0], PathPatternParser.defaultInstance.parse(parts[1]), limit,
+                    rejections(key, "overload"), rejections(key, "member"), rejections(key, "size")));
+            Gauge.builder("library.admission.limit", limit, AdaptiveLimit::limit)
+                    .description("Current concurrency limit").tag("endpoint", key).register(meterRegistry);
+            Gauge.builder("library.admission.in.flight", limit, AdaptiveLimit::inFlight)
+                    .description("Admitted requests in flight").tag("endpoint", key).register(meterRegistry);
+        }
+        endpoints.sort((a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern(), b.pattern()));
+    }
+
+    private Counter rejections(String endpoint, String reason) {
+        return Counter.builder("library.admission.rejected")
+                .description("Requests refused by admission control")
+                .tag("endpoint", endpoint).tag("reason", reason).register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Admission admission = admit(request, response);
+        if (admission == null) {
+            return;
+        }
+        try {
+            chain.doFilter(admission.request(), response);
+        } finally {
+            release(admission);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !pathWithinApplication(request).startsWith("/api/");
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // null if the request was refused (the response is written); an admission without an
+    // endpoint for requests that are not limited
+    Admission admit(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PathContainer path = PathContainer.parsePath(pathWithinApplication(request));
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.method().equals(request.getMethod())) {
+                continue;
+            }
+            PathPattern.PathMatchInfo match = endpoint.pattern().matchAndExtract(path);
+            if (match != null) {
+                return admit(endpoint, match, request, response);
+            }
+        }
+        return new Admission(null, null, 0, request);
+    }
+
+    private Admission admit(Endpoint endpoint, PathPattern.PathMatchInfo match, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        // Cheap checks first: an overloaded endpoint costs no member lookup
+        if (!tryAcquireTotal()) {
+            endpoint.overloadRejections().increment();
+            return reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        if (!endpoint.limit().tryAcquire()) {
+            totalInFlight.decrementAndGet();
+            endpoint.overloadRejections().increment();
+            return reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        HttpServletRequest passed = request;
+        String member;
+        try {
+            String recordId = match.getUriVariables().get("recordId");
+            Long memberId;
+            if (recordId != null) {
+                memberId = memberOfRecord(parseId(recordId));
+            } else {
+                CachedBodyRequest cached = CachedBodyRequest.read(request, maxBodyBytes);
+                if (cached == null) {
+                    endpoint.limit().cancel();
+                    totalInFlight.decrementAndGet();
+                    endpoint.sizeRejections().increment();
+                    response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                    return null;
+                }
+                passed = cached;
+                memberId = memberOfBody(cached.body());
+            }
+            member = memberId != null ? "member:" + memberId : "client:" + request.getRemoteAddr();
+        } catch (IOException | RuntimeException e) {
+            endpoint.limit().cancel();
+            totalInFlight.decrementAndGet();
+            throw e;
+        }
+        if (!acquireMember(member)) {
+            endpoint.limit().cancel();
+            totalInFlight.decrementAndGet();
+            endpoint.memberRejections().increment();
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return new Admission(endpoint, member, System.nanoTime(), passed);
+    }
+
+    void release(Admission admission) {
+        if (admission.endpoint() == null) {
+            return;
+        }
+        admission.endpoint().limit().release(System.nanoTime() - admission.startNanos());
+        totalInFlight.decrementAndGet();
+        releaseMember(admission.member());
+    }
+
+    // ==================== Members ====================
+
+    private Long memberOfBody(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json == null) {
+                return null;
+            }
+            if (json.path("memberId").isIntegralNumber()) {
+                return json.get("memberId").asLong();
+            }
+            JsonNode recordIds = json.path("recordIds");
+            if (recordIds.isArray() && recordIds.size() > 0 && recordIds.get(0).isIntegralNumber()) {
+                return memberOfRecord(recordIds.get(0).asLong());
+            }
+        } catch (IOException e) {
+            // Not JSON: the controller rejects it, the client key applies meanwhile
+        }
+        return null;
+    }
+
+    // Served from the second-level cache for recently touched loans
+    private Long memberOfRecord(Long recordId) {
+        if (recordId == null) {
+            return null;
+        }
+        return recordRepository.findById(recordId).map(BorrowingRecord::getMemberId).orElse(null);
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean acquireMember(String member) {
+        boolean[] acquired = new boolean[1];
+        memberInFlight.compute(member, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= perMemberLimit) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void releaseMember(String member) {
+        memberInFlight.computeIfPresent(member, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private boolean tryAcquireTotal() {
+        while (true) {
+            int current = totalInFlight.get();
+            if (current >= totalLimit) {
+                return false;
+            }
+            if (totalInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Admission reject(HttpServletResponse response, HttpStatus status) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.library.audit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One audit record: what happened to which entity, when (epoch millis), plus a few raw values.
+// Built on the request thread without any formatting; the writer thread serializes it to JSON.
+public record AuditEvent(long timestamp, Action action, String entity, Long entityId, Map<String, Object> detail) {
+
+    public enum Action { READ, CREATE, UPDATE, DELETE, BORROW, RETURN }
+
+    // Detail map from alternating keys and values; values may be null
+    public static Map<String, Object> detail(Object... keysAndValues) {
+        Map<String, Object> detail = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            detail.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return detail;
+    }
+}
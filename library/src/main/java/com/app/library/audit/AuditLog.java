@@ -0,0 +1,199 @@
+package com.app.library.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Asynchronous audit trail, written as JSON lines to an append-only file (library.audit.file).
+// Request threads only build an AuditEvent and offer it to a bounded lock-free ring buffer; a single
+// background thread drains it in batches, serializes and appends them, and flushes once per batch.
+// When the ring is full the event is dropped and counted rather than slowing the request down.
+// Reads are sampled (library.audit.read-sample-rate, 0..1); writes are always recorded.
+@Component
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${library.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.audit.file:audit/library-audit.jsonl}")
+    private Path file;
+
+    @Value("${library.audit.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${library.audit.batch-size:1024}")
+    private int batchSize;
+
+    // How long the writer sleeps when the ring is empty
+    @Value("${library.audit.idle-wait-ms:100}")
+    private long idleWaitMillis;
+
+    @Value("${library.audit.read-sample-rate:0.01}")
+    private double readSampleRate;
+
+    private AuditRingBuffer<AuditEvent> buffer;
+    private Counter written;
+    private Counter dropped;
+    private Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void init() {
+        buffer = new AuditRingBuffer<>(bufferSize);
+        written = counter("written");
+        dropped = counter("dropped");
+        failed = counter("failed");
+        Gauge.builder("library.audit.queued", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder("library.audit.events")
+                .description("Audit events by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // ==================== Publishing ====================
+
+    // Record a change; detail values are serialized later on the writer thread, so pass immutable values
+    public void record(AuditEvent.Action action, String entity, Long entityId, Map<String, Object> detail) {
+        if (!enabled) {
+            return;
+        }
+        if (!buffer.offer(new AuditEvent(System.currentTimeMillis(), action, entity, entityId, detail))) {
+            dropped.increment();
+        }
+    }
+
+    public void record(AuditEvent.Action action, String entity, Long entityId) {
+        record(action, entity, entityId, null);
+    }
+
+    // Whether this read should be recorded; check it before building the detail
+    public boolean sampleRead() {
+        return enabled && readSampleRate > 0
+                && (readSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < readSampleRate);
+    }
+
+    public void recordRead(String entity, Long entityId, Map<String, Object> detail) {
+        record(AuditEvent.Action.READ, entity, entityId, detail);
+    }
+
+    // ==================== Writer ====================
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Stops the writer after it has written everything published so far
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the web server, so no request publishes into a stopped log
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                while (true) {
+                    // Read the flag before draining, so the last pass sees everything published before stop()
+                    boolean stopping = !running;
+                    if (buffer.drainTo(batch, batchSize) > 0) {
+                        writeBatch(out, batch);
+                    } else if (stopping) {
+                        break;
+                    } else {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMillis));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Audit writer stopped, events can no longer be written to " + file, e);
+        }
+    }
+
+    private void writeBatch(BufferedWriter out, List<AuditEvent> batch) throws IOException {
+        for (AuditEvent event : batch) {
+            String line;
+            try {
+                line = objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                failed.increment();
+                continue;
+            }
+            out.write(line);
+            out.newLine();
+            written.increment();
+        }
+        out.flush();
+        batch.clear();
+    }
+}
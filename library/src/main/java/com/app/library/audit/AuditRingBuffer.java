@@ -0,0 +1,79 @@
+package com.app.library.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free queue for many producers and a single consumer (a ring of sequenced slots).
+// A producer claims a position with one CAS on the tail and publishes its element by advancing
+// the slot's sequence; offer never blocks and returns false when the ring is full. Only one
+// thread may call drainTo.
+final class AuditRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    // Slot i is free for position p when sequence == p, and holds the element of p when sequence == p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    AuditRingBuffer(int requestedCapacity) {
+        capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long difference = sequences.getAcquire(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.setPlain(slot, element);
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not freed this slot yet: the ring is full
+                return false;
+            } else {
+                // Another producer took this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    // Moves up to max published elements into the list, in order; returns how many were moved
+    int drainTo(List<? super E> target, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) (head & mask);
+            if (sequences.getAcquire(slot) != head + 1) {
+                break;
+            }
+            target.add(elements.getPlain(slot));
+            elements.setPlain(slot, null);
+            sequences.setRelease(slot, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    // Approximate number of queued elements
+    int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+}
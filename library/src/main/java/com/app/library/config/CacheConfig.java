@@ -0,0 +1,11 @@
+package com.app.library.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Turns on Spring's cache infrastructure; the Caffeine cache manager itself is
+// auto-configured from the spring.cache.* properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,52 @@
+package com.app.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Read/write split: read-only transactions take their connections from a separate pool, so a burst
+// of catalog reads cannot use up the connections that borrows and returns need.
+// The "dataSource" bean that JPA, Flyway and JdbcTemplate use is a lazy proxy. It only fetches a
+// physical connection at the first statement, by which time the transaction manager has marked the
+// connection read-only (or not), and takes it from the read pool or the primary pool accordingly.
+// Repositories default to read-only transactions; writes and everything inside a read-write
+// transaction stay on the primary. Both pools point at the same database unless
+// library.datasource.read.url names a replica.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+                                           @Value("${library.datasource.read.url:}") String readUrl) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (!readUrl.isEmpty()) {
+            dataSource.setJdbcUrl(readUrl);
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.library.config;
+
+import org.h2.tools.Restore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Persistent mode: when the database file is missing (a fresh host or a deleted data directory),
+// restore it from the newest backup before anything opens the DataSource. Runs as a bean factory
+// post-processor, i.e. before any regular bean (the pool, Flyway, JPA) is created.
+@Component
+@Profile("persistent")
+public class DatabaseRestorer implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseRestorer.class);
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        Path directory = Path.of(environment.getRequiredProperty("library.persistence.dir"));
+        String name = environment.getRequiredProperty("library.persistence.name");
+        Path backups = Path.of(environment.getRequiredProperty("library.persistence.backup-dir"));
+        if (Files.exists(directory.resolve(name + ".mv.db"))) {
+            return;
+        }
+        latestBackup(backups, name).ifPresent(backup -> {
+            long start = System.nanoTime();
+            Restore.execute(backup.toString(), directory.toString(), name);
+            logger.info("Restored database " + name + " from " + backup + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+    }
+
+    // Backup names embed a sortable timestamp (see DatabaseBackupService)
+    static Optional<Path> latestBackup(Path backups, String name) {
+        if (!Files.isDirectory(backups)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(backups)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(name + "-")
+                            && file.getFileName().toString().endsWith(".zip"))
+                    .max(Comparator.comparing(file -> file.getFileName().toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
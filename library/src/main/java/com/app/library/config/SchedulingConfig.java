@@ -0,0 +1,11 @@
+package com.app.library.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Turns on @Scheduled jobs (overdue scan); the scheduler itself is auto-configured
+// from the spring.task.scheduling.* properties
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
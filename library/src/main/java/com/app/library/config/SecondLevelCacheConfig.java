@@ -0,0 +1,89 @@
+package com.app.library.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Hibernate's second-level cache: entity and query-result regions held in Caffeine (through its
+// JCache provider) inside this JVM. Every region is created here with its own size bound and
+// expiry (library.l2cache.<region>.maximum-size / .expire-after-write), and Hibernate is set to
+// fail on any region that is not, so nothing ends up in an unbounded default cache.
+// The update-timestamps region is what invalidates cached query results when a table changes;
+// it is neither bounded nor expired, as losing an entry could serve a stale result.
+// Hibernate cannot tell which tables a native modifying query writes, so unless the query names
+// them with HibernateHints.HINT_NATIVE_SPACES (as the circulation counter upserts do) it clears
+// every region after running it.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Named by the @Cache annotations of the entities and the query hints of BookRepository
+    public static final String BOOK_REGION = "library.book";
+    public static final String MEMBER_REGION = "library.member";
+    public static final String RECORD_REGION = "library.borrowing-record";
+    public static final String BOOK_QUERY_REGION = "library.book-queries";
+
+    // Hibernate's own region names
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    public static final List<String> REGIONS = List.of(BOOK_REGION, MEMBER_REGION, RECORD_REGION,
+            BOOK_QUERY_REGION, QUERY_RESULTS_REGION, UPDATE_TIMESTAMPS_REGION);
+
+    // One cache manager per application context (its own URI), so contexts never share regions
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("library-l2-" + UUID.randomUUID()),
+                SecondLevelCacheConfig.class.getClassLoader());
+        createRegion(cacheManager, environment, BOOK_REGION, 20_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, environment, MEMBER_REGION, 10_000, Duration.ofMinutes(30));
+        createRegion(cacheManager, environment, RECORD_REGION, 20_000, Duration.ofMinutes(10));
+        createRegion(cacheManager, environment, BOOK_QUERY_REGION, 2_000, Duration.ofMinutes(10));
+        createRegion(cacheManager, environment, QUERY_RESULTS_REGION, 1_000, Duration.ofMinutes(5));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, configuration(null, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, Environment environment, String region,
+            long defaultSize, Duration defaultExpiry) {
+        String prefix = "library.l2cache." + region + ".";
+        long size = environment.getProperty(prefix + "maximum-size", Long.class, defaultSize);
+        Duration expiry = environment.getProperty(prefix + "expire-after-write", Duration.class, defaultExpiry);
+        cacheManager.createCache(region, configuration(size, expiry));
+    }
+
+    private CaffeineConfiguration<Object, Object> configuration(Long size, Duration expiry) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores its own disassembled entries, so copying them on every put/get is wasted work
+        configuration.setStoreByValue(false);
+        // Caffeine's own counters, read by /api/cache/entity-stats
+        configuration.setNativeStatisticsEnabled(true);
+        if (size != null) {
+            configuration.setMaximumSize(OptionalLong.of(size));
+        }
+        if (expiry != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expiry.toNanos()));
+        }
+        return configuration;
+    }
+}
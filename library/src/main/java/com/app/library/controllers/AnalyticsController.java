@@ -0,0 +1,74 @@
+package com.app.library.controllers;
+
+import com.app.library.dto.CirculationBucket;
+import com.app.library.dto.TopBook;
+import com.app.library.models.CategoryCirculation;
+import com.app.library.services.AnalyticsService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_TOP = 100;
+
+    // Longest series served in one response
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // Most borrowed books, overall or of one genre or author
+    @GetMapping("/top-books")
+    public ResponseEntity<List<TopBook>> getTopBooks(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String author,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_TOP || (genre != null && author != null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(analyticsService.topBooks(genre, author, limit), HttpStatus.OK);
+    }
+
+    // Most borrowed genres
+    @GetMapping("/top-genres")
+    public ResponseEntity<List<CategoryCirculation>> getTopGenres(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_TOP) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(analyticsService.topCategories(CategoryCirculation.Kind.GENRE, limit), HttpStatus.OK);
+    }
+
+    // Most borrowed authors
+    @GetMapping("/top-authors")
+    public ResponseEntity<List<CategoryCirculation>> getTopAuthors(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_TOP) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(analyticsService.topCategories(CategoryCirculation.Kind.AUTHOR, limit), HttpStatus.OK);
+    }
+
+    // Borrows and returns per day, week or month between two dates (format dd/MM/yyyy, inclusive)
+    @GetMapping("/circulation")
+    public ResponseEntity<List<CirculationBucket>> getCirculation(
+            @RequestParam("from") @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate from,
+            @RequestParam("to") @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate to,
+            @RequestParam(defaultValue = "DAY") AnalyticsService.Bucket bucket) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(analyticsService.circulation(from, to, bucket), HttpStatus.OK);
+    }
+}
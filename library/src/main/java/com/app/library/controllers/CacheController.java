@@ -0,0 +1,50 @@
+package com.app.library.controllers;
+
+import com.app.library.config.SecondLevelCacheConfig;
+import com.app.library.dto.CacheStatistics;
+import com.app.library.services.CatalogCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    // Hit/miss/eviction statistics per cache region
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, CacheStatistics>> getStatistics() {
+        return new ResponseEntity<>(catalogCache.statistics(), HttpStatus.OK);
+    }
+
+    // The same statistics for Hibernate's second-level cache regions (entities and query results)
+    @GetMapping("/entity-stats")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Map<String, CacheStatistics>> getEntityStatistics() {
+        Map<String, CacheStatistics> result = new LinkedHashMap<>();
+        for (String region : SecondLevelCacheConfig.REGIONS) {
+            Cache<Object, Object> cache = hibernateCacheManager.getCache(region).unwrap(Cache.class);
+            CacheStats stats = cache.stats();
+            result.put(region, new CacheStatistics(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.evictionCount(), cache.estimatedSize()));
+        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,87 @@
+package com.app.library.controllers;
+
+import com.app.library.audit.AuditEvent;
+import com.app.library.audit.AuditLog;
+import com.app.library.dto.HoldRequest;
+import com.app.library.dto.HoldView;
+import com.app.library.services.HoldService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+
+// Reservations: place one hold instead of polling /api/borrow for a copy
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    // Place a hold; 201 with status WAITING and a queue position, or FULFILLED with the new loan's recordId
+    @PostMapping
+    public ResponseEntity<HoldView> placeHold(@RequestBody HoldRequest request) {
+        HoldView hold;
+        try {
+            hold = holdService.placeHold(request.bookId(), request.memberId());
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        auditLog.record(AuditEvent.Action.CREATE, "hold", hold.id(),
+                AuditEvent.detail("bookId", hold.bookId(), "memberId", hold.memberId(), "status", hold.status()));
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    // A hold with its current queue position
+    @GetMapping("/{id}")
+    public ResponseEntity<HoldView> getHold(@PathVariable Long id) {
+        return holdService.getHold(id)
+                .map(hold -> new ResponseEntity<>(hold, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // The waiting queue of a book (bookId) or all holds of a member (memberId)
+    @GetMapping
+    public ResponseEntity<Collection<HoldView>> getHolds(
+            @RequestParam(required = false) Long bookId,
+            @RequestParam(required = false) Long memberId) {
+        if (bookId != null) {
+            return new ResponseEntity<>(holdService.getQueue(bookId), HttpStatus.OK);
+        }
+        if (memberId != null) {
+            return new ResponseEntity<>(holdService.getMemberHolds(memberId), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    // Cancel a waiting hold; 409 once it has been served or cancelled
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id) {
+        boolean cancelled;
+        try {
+            cancelled = holdService.cancelHold(id);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (!cancelled) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        auditLog.record(AuditEvent.Action.DELETE, "hold", id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.library.controllers;
+
+import com.app.library.dto.ImportReport;
+import com.app.library.services.ImportService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+// Bulk catalog loading. Bodies are read as a stream: a JSON array (application/json),
+// one JSON object per line (application/x-ndjson) or CSV with a header row (text/csv).
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    // Import books, committing every chunkSize rows (defaults to library.import.chunk-size)
+    @PostMapping("/books")
+    public ResponseEntity<ImportReport> importBooks(
+            InputStream body,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) MediaType contentType,
+            @RequestParam(defaultValue = "0") int chunkSize) {
+        return new ResponseEntity<>(importService.importBooks(body, contentType, chunkSize), HttpStatus.OK);
+    }
+
+    // Import members, committing every chunkSize rows (defaults to library.import.chunk-size)
+    @PostMapping("/members")
+    public ResponseEntity<ImportReport> importMembers(
+            InputStream body,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) MediaType contentType,
+            @RequestParam(defaultValue = "0") int chunkSize) {
+        return new ResponseEntity<>(importService.importMembers(body, contentType, chunkSize), HttpStatus.OK);
+    }
+}
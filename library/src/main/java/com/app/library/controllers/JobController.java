@@ -0,0 +1,82 @@
+package com.app.library.controllers;
+
+import com.app.library.dto.ArchiveStats;
+import com.app.library.dto.BackupInfo;
+import com.app.library.dto.OverdueScanStats;
+import com.app.library.services.DatabaseBackupService;
+import com.app.library.services.LoanArchiveService;
+import com.app.library.services.OverdueScanService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private OverdueScanService overdueScanService;
+
+    @Autowired
+    private LoanArchiveService archiveService;
+
+    // Only present in the persistent profile
+    @Autowired(required = false)
+    private DatabaseBackupService backupService;
+
+    // Progress and throughput of the current or last overdue scan
+    @GetMapping("/overdue-scan")
+    public ResponseEntity<OverdueScanStats> getOverdueScanStats() {
+        return new ResponseEntity<>(overdueScanService.stats(), HttpStatus.OK);
+    }
+
+    // Start an overdue scan for today in the background (409 if one is already running)
+    @PostMapping("/overdue-scan")
+    public ResponseEntity<OverdueScanStats> startOverdueScan() {
+        if (!overdueScanService.startAsync(LocalDate.now())) {
+            return new ResponseEntity<>(overdueScanService.stats(), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(overdueScanService.stats(), HttpStatus.ACCEPTED);
+    }
+
+    // Progress of the current or last archive run and the size of the hot and archive tables
+    @GetMapping("/archive")
+    public ResponseEntity<ArchiveStats> getArchiveStats() {
+        return new ResponseEntity<>(archiveService.stats(), HttpStatus.OK);
+    }
+
+    // Move old returned loans to the archive now, in the background (409 if a run is in progress)
+    @PostMapping("/archive")
+    public ResponseEntity<ArchiveStats> startArchive() {
+        if (!archiveService.startAsync(LocalDate.now())) {
+            return new ResponseEntity<>(archiveService.stats(), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(archiveService.stats(), HttpStatus.ACCEPTED);
+    }
+
+    // Snapshots of the database file, newest first (404 unless running with the persistent profile)
+    @GetMapping("/backup")
+    public ResponseEntity<List<BackupInfo>> getBackups() {
+        if (backupService == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(backupService.backups(), HttpStatus.OK);
+    }
+
+    // Take a snapshot now
+    @PostMapping("/backup")
+    public ResponseEntity<BackupInfo> backup() {
+        if (backupService == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(backupService.backup(), HttpStatus.CREATED);
+    }
+}
@@ -1,38 +1,92 @@
 package com.app.library.controllers;
 
+import com.app.library.audit.AuditEvent;
+import com.app.library.audit.AuditLog;
+import com.app.library.dto.BatchBorrowRequest;
+import com.app.library.dto.BatchItemResult;
+import com.app.library.dto.BatchResult;
+import com.app.library.dto.BatchReturnRequest;
+import com.app.library.dto.BookSearchHit;
+import com.app.library.dto.DueLoan;
+import com.app.library.dto.MemberDashboard;
 import com.app.library.models.Book;
 import com.app.library.models.Member;
 import com.app.library.models.BorrowingRecord;
+import com.app.library.services.CatalogVersions;
+import com.app.library.services.DashboardUnavailableException;
 import com.app.library.services.LibraryService;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.format.annotation.DateTimeFormat;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api")
 public class LibraryController {
 
-    // Create a logger instance
-    private static final Logger logger = LoggerFactory.getLogger(LibraryController.class);
+    // Page size used when a client sends only a cursor
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    // Response header carrying the cursor for the next keyset page
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+
+    // Largest batch accepted by /borrow/batch and /return/batch
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Bytes buffered (or gzip-deflated) before each write to the response
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
 
     @Autowired
     private LibraryService libraryService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Versions behind the ETags of the book endpoints; a matching If-None-Match gets 304 without a query
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    // Audit trail of changes and sampled reads (replaces per-request INFO logging)
+    @Autowired
+    private AuditLog auditLog;
+
     // ==================== Book Endpoints ====================
 
-    // Get all books or filter by optional author and/or genre
+    // Get all books or filter by optional author and/or genre.
+    // Passing limit and/or after switches to keyset pagination on id; the cursor for the
+    // next page is returned in the X-Next-After header while more results may follow.
     @GetMapping("/books")
     public ResponseEntity<Collection<Book>> getAllBooks(
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) String genre) {
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.catalogTag();
+        if (notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (limit != null || after != null) {
+            return bookPage(author, genre, after, limit, etag);
+        }
         Collection<Book> books;
         if (author != null) {
             books = libraryService.getBooksByAuthorAndGenre(author, genre);
@@ -41,26 +95,134 @@ public class LibraryController {
         } else {
             books = libraryService.getAllBooks();
         }
-        logger.info("The list of books returned" + books);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("author", author, "genre", genre, "count", books.size()));
+        }
+        return ResponseEntity.ok().eTag(etag).body(books);
+    }
+
+    // Stream all books (optionally filtered) as a chunked JSON array, one keyset page at a time
+    @GetMapping(value = "/books/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBooks(
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String genre,
+            @RequestParam(defaultValue = "500") int pageSize) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                libraryService.forEachBookPage(author, genre, pageSize, page -> {
+                    try {
+                        for (Book book : page) {
+                            json.writeObject(book);
+                        }
+                        json.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("author", author, "genre", genre, "stream", true));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
-    // Get books by genre (query parameter)
+    // Get books by genre (query parameter), optionally as a keyset page
     @GetMapping("/books/genre")
-    public ResponseEntity<Collection<Book>> getBooksByGenre(@RequestParam String genre) {
+    public ResponseEntity<Collection<Book>> getBooksByGenre(
+            @RequestParam String genre,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.catalogTag();
+        if (notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (limit != null || after != null) {
+            return bookPage(null, genre, after, limit, etag);
+        }
         Collection<Book> books = libraryService.getBooksByGenre(genre);
-        logger.info("The books retrieved for genre " + genre);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("genre", genre, "count", books.size()));
+        }
+        return ResponseEntity.ok().eTag(etag).body(books);
     }
 
-    // Get books by author with optional genre filter
+    // Get books by author with optional genre filter, optionally as a keyset page
     @GetMapping("/books/author/{author}")
     public ResponseEntity<Collection<Book>> checkGenreForAuthor(
             @PathVariable String author,
-            @RequestParam(required = false) String genre) {
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.catalogTag();
+        if (notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (limit != null || after != null) {
+            return bookPage(author, genre, after, limit, etag);
+        }
         Collection<Book> books = libraryService.getBooksByAuthorAndGenre(author, genre);
-        logger.info("The books retrieved for the author and genre " + author + " - " + genre);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("author", author, "genre", genre, "count", books.size()));
+        }
+        return ResponseEntity.ok().eTag(etag).body(books);
+    }
+
+    // Build a keyset page response; a full page means there may be more, so expose the next cursor
+    private ResponseEntity<Collection<Book>> bookPage(String author, String genre, Long after, Integer limit, String etag) {
+        int size = Math.min(limit == null ? DEFAULT_PAGE_SIZE : limit, LibraryService.MAX_PAGE_SIZE);
+        if (size <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<Book> page = libraryService.getBooksPage(author, genre, after, size);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        if (page.size() == size) {
+            headers.set(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("author", author, "genre", genre, "after", after, "count", page.size()));
+        }
+        return new ResponseEntity<>(page, headers, HttpStatus.OK);
+    }
+
+    // Whether the client already holds this version: If-None-Match lists the tag (weak or strong) or is "*"
+    private static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Search books by title and author words, best matches first (also serves typeahead prefixes)
+    @GetMapping("/books/search")
+    public ResponseEntity<Collection<BookSearchHit>> searchBooks(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        Collection<BookSearchHit> hits = libraryService.searchBooks(query, limit);
+        if (hits == null) {
+            // The index is still loading: a partial answer would look like a complete one
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "5");
+            return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("q", query, "count", hits.size()));
+        }
+        return new ResponseEntity<>(hits, HttpStatus.OK);
     }
 
     // Get books due on a specified date (format dd/MM/yyyy)
@@ -68,10 +230,27 @@ public class LibraryController {
     public ResponseEntity<Collection<Book>> getBooksDueOnDate(
             @RequestParam("dueDate") @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate dueDate) {
         Collection<Book> books = libraryService.getBooksDueOnDate(dueDate);
-        logger.info("The books retrieved by due date " + dueDate);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", null, AuditEvent.detail("dueDate", dueDate, "count", books.size()));
+        }
         return new ResponseEntity<>(books, HttpStatus.OK);
     }
 
+    // Get loans due in a date range (format dd/MM/yyyy, both ends inclusive) with their books
+    @GetMapping("/books/due")
+    public ResponseEntity<Collection<DueLoan>> getLoansDueBetween(
+            @RequestParam("from") @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate from,
+            @RequestParam("to") @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate to) {
+        if (to.isBefore(from)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Collection<DueLoan> loans = libraryService.getLoansDueBetween(from, to);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("borrowing-record", null, AuditEvent.detail("from", from, "to", to, "count", loans.size()));
+        }
+        return new ResponseEntity<>(loans, HttpStatus.OK);
+    }
+
     // Check earliest availability date for a book
     @GetMapping("/bookavailabileDate")
     public ResponseEntity<LocalDate> checkAvailability(@RequestParam Long bookId) {
@@ -85,12 +264,19 @@ public class LibraryController {
 
     // Get a book by ID
     @GetMapping("/books/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<Book> getBookById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = catalogVersions.bookTag(id);
+        if (notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         Book book = libraryService.getBookById(id);
-        logger.info("The book returned"+book);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("book", id, AuditEvent.detail("found", book != null));
+        }
 
 		if(book != null) {
-			return new ResponseEntity<>(book, HttpStatus.OK);
+			return ResponseEntity.ok().eTag(etag).body(book);
 		} else {
 			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 		}
@@ -100,7 +286,7 @@ public class LibraryController {
     @PostMapping("/books")
     public ResponseEntity<Book> addBook(@RequestBody Book book) {
         libraryService.addBook(book);
-        logger.info("The book was added");
+        auditLog.record(AuditEvent.Action.CREATE, "book", book.getId());
         return new ResponseEntity<>(book, HttpStatus.CREATED);
     }
 
@@ -112,7 +298,7 @@ public class LibraryController {
         }
         updatedBook.setId(id);
         libraryService.updateBook(updatedBook);
-        logger.info("The book has been updated "+updatedBook);
+        auditLog.record(AuditEvent.Action.UPDATE, "book", id);
         return new ResponseEntity<>(updatedBook, HttpStatus.OK);
     }
 
@@ -123,7 +309,7 @@ public class LibraryController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         libraryService.deleteBook(id);
-        logger.info("The book has been deleted ");
+        auditLog.record(AuditEvent.Action.DELETE, "book", id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -133,7 +319,9 @@ public class LibraryController {
     @GetMapping("/members")
     public ResponseEntity<Collection<Member>> getAllMembers() {
         Collection<Member> members = libraryService.getAllMembers();
-        logger.info("The members in the system " + members);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("member", null, AuditEvent.detail("count", members.size()));
+        }
         return new ResponseEntity<>(members, HttpStatus.OK);
     }
 
@@ -141,7 +329,9 @@ public class LibraryController {
     @GetMapping("/members/{id}")
     public ResponseEntity<Member> getMemberById(@PathVariable Long id) {
         Member member = libraryService.getMemberById(id);
-        logger.info("The member you retrieved "+member);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("member", id, AuditEvent.detail("found", member != null));
+        }
 		if(member != null) {
 			return new ResponseEntity<>(member, HttpStatus.OK);
 		} else {
@@ -149,11 +339,36 @@ public class LibraryController {
 		}
     }
 
+    // Member page: active loans, recent history and totals in one response
+    @GetMapping("/members/{id}/dashboard")
+    public ResponseEntity<MemberDashboard> getMemberDashboard(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int historyLimit) {
+        if (historyLimit <= 0 || historyLimit > LibraryService.MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        MemberDashboard dashboard;
+        try {
+            dashboard = libraryService.getMemberDashboard(id, historyLimit);
+        } catch (DashboardUnavailableException e) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("member", id, AuditEvent.detail("dashboard", true, "found", dashboard != null));
+        }
+        if (dashboard == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(dashboard, HttpStatus.OK);
+    }
+
     // Add a new member
     @PostMapping("/members")
     public ResponseEntity<Member> addMember(@RequestBody Member member) {
         libraryService.addMember(member);
-        logger.info("The member has been added ");
+        auditLog.record(AuditEvent.Action.CREATE, "member", member.getId());
         return new ResponseEntity<>(member, HttpStatus.CREATED);
     }
 
@@ -165,7 +380,7 @@ public class LibraryController {
         }
         updatedMember.setId(id);
         libraryService.updateMember(updatedMember);
-        logger.info("The member has been updated "+updatedMember);
+        auditLog.record(AuditEvent.Action.UPDATE, "member", id);
         return new ResponseEntity<>(updatedMember, HttpStatus.OK);
     }
 
@@ -176,7 +391,7 @@ public class LibraryController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         libraryService.deleteMember(id);
-        logger.info("The member has been deleted "+id);
+        auditLog.record(AuditEvent.Action.DELETE, "member", id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -186,10 +401,50 @@ public class LibraryController {
     @GetMapping("/borrowing-records")
     public ResponseEntity<Collection<BorrowingRecord>> getAllBorrowingRecords() {
         Collection<BorrowingRecord> records = libraryService.getAllBorrowingRecords();
-        logger.info("The records has been retrieved "+records);
+        if (auditLog.sampleRead()) {
+            auditLog.recordRead("borrowing-record", null, AuditEvent.detail("count", records.size()));
+        }
         return new ResponseEntity<>(records, HttpStatus.OK);
     }
 
+    // Export borrowing records as NDJSON (one JSON object per line, in id order), optionally only
+    // those borrowed in a date range (dd/MM/yyyy, inclusive) and/or of one member. Rows are written
+    // to the response as they come off the database cursor, gzip-compressed when the client accepts it.
+    @GetMapping(value = "/borrowing-records/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBorrowingRecords(
+            @RequestParam(required = false) Long memberId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(target)) {
+                json.setRootValueSeparator(null);
+                libraryService.exportBorrowingRecords(memberId, from, to, row -> {
+                    try {
+                        json.writeObject(row);
+                        json.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        // Exports are always recorded, unlike sampled reads
+        auditLog.recordRead("borrowing-record", null, AuditEvent.detail("export", true, "memberId", memberId, "from", from, "to", to));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(NDJSON));
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     // Borrow a book
     @PostMapping("/borrow")
     public ResponseEntity<BorrowingRecord> borrowBook(@RequestBody BorrowingRecord record) {
@@ -197,7 +452,8 @@ public class LibraryController {
         record.setBorrowDate(LocalDate.now());
         record.setDueDate(LocalDate.now().plusDays(14));
         libraryService.borrowBook(record);
-        logger.info("The book has been borrowed "+record);
+        auditLog.record(AuditEvent.Action.BORROW, "borrowing-record", record.getId(),
+                AuditEvent.detail("bookId", record.getBookId(), "memberId", record.getMemberId(), "dueDate", record.getDueDate()));
         return new ResponseEntity<>(record, HttpStatus.CREATED);
     }
 
@@ -205,7 +461,40 @@ public class LibraryController {
     @PutMapping("/return/{recordId}")
     public ResponseEntity<Void> returnBook(@PathVariable Long recordId) {
         libraryService.returnBook(recordId, LocalDate.now());
-        logger.info("The book has been retrieved "+recordId);
+        auditLog.record(AuditEvent.Action.RETURN, "borrowing-record", recordId);
         return new ResponseEntity<>(HttpStatus.OK);
     }
+
+    // Front-desk checkout of several books for one member, all or nothing: 201 with the loans,
+    // or 409 with the reason per item when any book is missing or has no copy left
+    @PostMapping("/borrow/batch")
+    public ResponseEntity<BatchResult> borrowBooks(@RequestBody BatchBorrowRequest request) {
+        if (request.memberId() == null || request.bookIds() == null || request.bookIds().isEmpty()
+                || request.bookIds().size() > MAX_BATCH_SIZE || request.bookIds().contains(null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BatchResult result = libraryService.borrowBooks(request.memberId(), request.bookIds(), LocalDate.now());
+        if (!result.applied()) {
+            return new ResponseEntity<>(result, HttpStatus.CONFLICT);
+        }
+        auditLog.record(AuditEvent.Action.BORROW, "borrowing-record", null, AuditEvent.detail("memberId", request.memberId(),
+                "recordIds", result.items().stream().map(BatchItemResult::recordId).toList()));
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    // Return several loans at once, all or nothing: 200, or 409 with the reason per item
+    @PutMapping("/return/batch")
+    public ResponseEntity<BatchResult> returnBooks(@RequestBody BatchReturnRequest request) {
+        if (request.recordIds() == null || request.recordIds().isEmpty()
+                || request.recordIds().size() > MAX_BATCH_SIZE || request.recordIds().contains(null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BatchResult result = libraryService.returnBooks(request.recordIds(), LocalDate.now());
+        if (!result.applied()) {
+            return new ResponseEntity<>(result, HttpStatus.CONFLICT);
+        }
+        auditLog.record(AuditEvent.Action.RETURN, "borrowing-record", null,
+                AuditEvent.detail("recordIds", List.copyOf(request.recordIds())));
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
 }
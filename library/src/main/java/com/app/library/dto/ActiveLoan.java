@@ -0,0 +1,7 @@
+package com.app.library.dto;
+
+import java.time.LocalDate;
+
+// Minimal projection of an open borrowing record
+public record ActiveLoan(Long recordId, Long bookId, LocalDate dueDate) {
+}
@@ -0,0 +1,9 @@
+package com.app.library.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// State of the archive job: the current or last run and how many loans each store holds
+public record ArchiveStats(boolean running, int minAgeDays, LocalDate cutoff, LocalDateTime startedAt, long millis,
+                           long moved, long batches, long hotRecords, long archivedRecords) {
+}
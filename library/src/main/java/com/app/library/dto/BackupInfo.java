@@ -0,0 +1,7 @@
+package com.app.library.dto;
+
+import java.time.LocalDateTime;
+
+// One online backup of the database (persistent mode); millis is only known for backups taken by this process
+public record BackupInfo(String file, long bytes, LocalDateTime createdAt, Long millis) {
+}
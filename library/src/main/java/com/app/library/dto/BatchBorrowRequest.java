@@ -0,0 +1,7 @@
+package com.app.library.dto;
+
+import java.util.List;
+
+// Body of POST /api/borrow/batch: one member borrowing several books (a repeated id borrows several copies)
+public record BatchBorrowRequest(Long memberId, List<Long> bookIds) {
+}
@@ -0,0 +1,20 @@
+package com.app.library.dto;
+
+import java.time.LocalDate;
+
+// Outcome of one item of a batch borrow/return. id is the requested book id (borrow) or record id
+// (return); recordId and dueDate describe the loan. SKIPPED items were valid but not applied
+// because another item of the same all-or-nothing batch failed. RESERVED books have members
+// waiting in their hold queue ahead of the borrower.
+public record BatchItemResult(Long id, Status status, Long recordId, LocalDate dueDate) {
+
+    public enum Status { BORROWED, RETURNED, NOT_FOUND, UNAVAILABLE, RESERVED, ALREADY_RETURNED, SKIPPED }
+
+    public static BatchItemResult of(Long id, Status status) {
+        return new BatchItemResult(id, status, null, null);
+    }
+
+    public boolean failed() {
+        return status != Status.BORROWED && status != Status.RETURNED && status != Status.SKIPPED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.app.library.dto;
+
+import java.util.List;
+
+// Result of a batch borrow/return: applied is true when every item was applied, false when the
+// batch was rejected as a whole; items are in request order
+public record BatchResult(boolean applied, List<BatchItemResult> items) {
+}
@@ -0,0 +1,7 @@
+package com.app.library.dto;
+
+import java.util.List;
+
+// Body of PUT /api/return/batch
+public record BatchReturnRequest(List<Long> recordIds) {
+}
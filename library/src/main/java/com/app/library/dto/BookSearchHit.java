@@ -0,0 +1,5 @@
+package com.app.library.dto;
+
+// One ranked result of a catalog search, served from the in-memory index
+public record BookSearchHit(Long id, String title, String author, String genre, int score) {
+}
@@ -0,0 +1,5 @@
+package com.app.library.dto;
+
+// Hit/miss/eviction counters of one cache region
+public record CacheStatistics(long hitCount, long missCount, double hitRate, long evictionCount, long estimatedSize) {
+}
@@ -0,0 +1,7 @@
+package com.app.library.dto;
+
+import java.time.LocalDate;
+
+// Borrows and returns in the day, week (from Monday) or month starting at start
+public record CirculationBucket(LocalDate start, long borrowCount, long returnCount) {
+}
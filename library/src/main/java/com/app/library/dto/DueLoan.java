@@ -0,0 +1,8 @@
+package com.app.library.dto;
+
+import com.app.library.models.Book;
+import java.time.LocalDate;
+
+// A borrowing record together with the book it refers to, loaded in one join query
+public record DueLoan(Long recordId, Long memberId, LocalDate dueDate, LocalDate returnDate, Book book) {
+}
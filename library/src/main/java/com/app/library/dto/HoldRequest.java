@@ -0,0 +1,5 @@
+package com.app.library.dto;
+
+// Body of POST /api/holds
+public record HoldRequest(Long bookId, Long memberId) {
+}
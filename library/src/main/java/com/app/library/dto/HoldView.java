@@ -0,0 +1,14 @@
+package com.app.library.dto;
+
+import com.app.library.models.Hold;
+import java.time.LocalDateTime;
+
+// A hold with its current place in the book's queue (1 = next to be served; 0 once no longer waiting)
+public record HoldView(Long id, Long bookId, Long memberId, Hold.Status status, int position, Long recordId,
+                       LocalDateTime createdAt, LocalDateTime resolvedAt) {
+
+    public static HoldView of(Hold hold, int position) {
+        return new HoldView(hold.getId(), hold.getBookId(), hold.getMemberId(), hold.getStatus(), position,
+                hold.getRecordId(), hold.getCreatedAt(), hold.getResolvedAt());
+    }
+}
@@ -0,0 +1,5 @@
+package com.app.library.dto;
+
+// Outcome of one chunk (one transaction) of a bulk import; error is null when the chunk committed
+public record ImportChunkResult(int chunk, int rows, long millis, double rowsPerSecond, String error) {
+}
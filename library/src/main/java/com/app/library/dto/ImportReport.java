@@ -0,0 +1,9 @@
+package com.app.library.dto;
+
+import java.util.List;
+
+// Summary of a bulk import: committed and rejected rows, overall throughput, per-chunk results
+// and the input errors (unparseable lines) that were skipped
+public record ImportReport(String entity, long imported, long failed, long millis, double rowsPerSecond,
+                           List<ImportChunkResult> chunks, List<String> errors) {
+}
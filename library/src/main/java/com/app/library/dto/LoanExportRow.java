@@ -0,0 +1,9 @@
+package com.app.library.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One borrowing record in the NDJSON export; a plain projection, so streamed rows are never managed entities
+public record LoanExportRow(Long id, Long bookId, Long memberId, LocalDate borrowDate, LocalDate dueDate,
+                            LocalDate returnDate, boolean overdue, BigDecimal fine, LocalDate fineAssessedOn) {
+}
@@ -0,0 +1,7 @@
+package com.app.library.dto;
+
+import java.math.BigDecimal;
+
+// Aggregates over all loans of a member; fines is null when no fine was ever assessed
+public record LoanTotals(Long loans, BigDecimal fines) {
+}
@@ -0,0 +1,12 @@
+package com.app.library.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Everything a member page shows, in one response: the member, open loans ordered by due date,
+// the most recent returned loans and totals
+public record MemberDashboard(Long memberId, String name, String email, LocalDate membershipEnd,
+                              List<MemberLoan> activeLoans, LocalDate nextDueDate, long overdueLoans,
+                              List<MemberLoan> history, long totalLoans, BigDecimal totalFines) {
+}
@@ -0,0 +1,9 @@
+package com.app.library.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A member's loan flattened with the title and author of its book (null if the book was deleted)
+public record MemberLoan(Long recordId, Long bookId, String title, String author, LocalDate borrowDate,
+                         LocalDate dueDate, LocalDate returnDate, boolean overdue, BigDecimal fine) {
+}
@@ -0,0 +1,10 @@
+package com.app.library.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// State of the overdue-scan job: the current or last run, its progress and throughput
+public record OverdueScanStats(boolean running, LocalDate runDate, boolean completed, long lastId, long scanned,
+                               long flagged, long chunks, LocalDateTime startedAt, long millis,
+                               double recordsPerSecond) {
+}
@@ -0,0 +1,5 @@
+package com.app.library.dto;
+
+// A book in a most-borrowed ranking; title is null once the book has been deleted
+public record TopBook(Long bookId, String title, String author, String genre, long borrowCount, long returnCount) {
+}
@@ -0,0 +1,31 @@
+package com.app.library.events;
+
+import com.app.library.models.Book;
+
+// Published by LibraryService whenever a book row changes.
+// title/genre/author describe the book after the change, previousGenre/previousAuthor before it
+// (null when there is no "before", e.g. for a newly created book, or no "after" for a deleted one).
+public record BookChangedEvent(Kind kind, Long bookId, String title, String genre, String author,
+                               String previousGenre, String previousAuthor) {
+
+    public enum Kind { CREATED, UPDATED, DELETED, INVENTORY }
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Kind.CREATED, book.getId(), book.getTitle(), book.getGenre(), book.getAuthor(), null, null);
+    }
+
+    public static BookChangedEvent updated(Book previous, Book current) {
+        return new BookChangedEvent(Kind.UPDATED, current.getId(), current.getTitle(), current.getGenre(), current.getAuthor(),
+                previous == null ? null : previous.getGenre(), previous == null ? null : previous.getAuthor());
+    }
+
+    public static BookChangedEvent deleted(Long bookId, Book previous) {
+        return new BookChangedEvent(Kind.DELETED, bookId, null, null, null,
+                previous == null ? null : previous.getGenre(), previous == null ? null : previous.getAuthor());
+    }
+
+    // Only the available copy count changed (borrow/return)
+    public static BookChangedEvent inventory(Long bookId) {
+        return new BookChangedEvent(Kind.INVENTORY, bookId, null, null, null, null, null);
+    }
+}
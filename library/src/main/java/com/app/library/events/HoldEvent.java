@@ -0,0 +1,13 @@
+package com.app.library.events;
+
+import com.app.library.models.Hold;
+
+// Published by HoldService when a hold joins a queue, is served or is cancelled
+public record HoldEvent(Kind kind, Long holdId, Long bookId, Long memberId) {
+
+    public enum Kind { PLACED, FULFILLED, CANCELLED }
+
+    public static HoldEvent of(Kind kind, Hold hold) {
+        return new HoldEvent(kind, hold.getId(), hold.getBookId(), hold.getMemberId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.library.events;
+
+import com.app.library.models.BorrowingRecord;
+import java.time.LocalDate;
+
+// Published by LibraryService when a loan is opened (borrow) or closed (return)
+public record LoanEvent(Kind kind, Long recordId, Long bookId, Long memberId, LocalDate dueDate, LocalDate date) {
+
+    public enum Kind { BORROWED, RETURNED }
+
+    public static LoanEvent borrowed(BorrowingRecord record) {
+        return new LoanEvent(Kind.BORROWED, record.getId(), record.getBookId(), record.getMemberId(),
+                record.getDueDate(), record.getBorrowDate());
+    }
+
+    public static LoanEvent returned(BorrowingRecord record, LocalDate returnDate) {
+        return new LoanEvent(Kind.RETURNED, record.getId(), record.getBookId(), record.getMemberId(),
+                record.getDueDate(), returnDate);
+    }
+}
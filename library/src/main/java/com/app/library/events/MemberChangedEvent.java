@@ -0,0 +1,5 @@
+package com.app.library.events;
+
+// Published by LibraryService whenever a member row is updated or deleted
+public record MemberChangedEvent(Long memberId) {
+}
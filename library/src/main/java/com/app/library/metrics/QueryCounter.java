@@ -0,0 +1,50 @@
+package com.app.library.metrics;
+
+// Per-thread count of SQL statements executed and result rows fetched.
+// Counting is only active between start() and stop() (i.e. while a request is being served),
+// so JDBC work outside requests costs a single ThreadLocal read.
+public final class QueryCounter {
+
+    public static final class Counts {
+        long statements;
+        long rows;
+
+        public long statements() {
+            return statements;
+        }
+
+        public long rows() {
+            return rows;
+        }
+    }
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Counts());
+    }
+
+    // Stop counting on this thread and return what was counted since start()
+    public static Counts stop() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+
+    static void statementExecuted() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    static void rowFetched() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.rows++;
+        }
+    }
+}
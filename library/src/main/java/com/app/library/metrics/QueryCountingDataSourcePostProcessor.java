@@ -0,0 +1,89 @@
+package com.app.library.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Wraps the application DataSource in JDBC proxies that report every executed statement and
+// every fetched row to QueryCounter. unwrap()/isWrapperFor() pass through to the real pool,
+// so pool metrics and other DataSource introspection keep working.
+@Component
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    // Only the bean that JPA and Flyway use; wrapping nested data sources as well would count twice
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+            return proxy(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(QueryCountingDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[]{type}, new CountingHandler(target));
+    }
+
+    private static final class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            String name = method.getName();
+            if (target instanceof ResultSet) {
+                if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                    QueryCounter.rowFetched();
+                }
+                return result;
+            }
+            if (target instanceof Statement && name.startsWith("execute")) {
+                QueryCounter.statementExecuted();
+            }
+            return wrap(result);
+        }
+
+        // Keep proxying down the Connection -> Statement -> ResultSet chain
+        private static Object wrap(Object result) {
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection);
+            }
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement);
+            }
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, resultSet);
+            }
+            return result;
+        }
+    }
+}
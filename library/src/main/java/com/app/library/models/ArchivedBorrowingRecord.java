@@ -0,0 +1,92 @@
+package com.app.library.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// A returned loan moved to the cold history store (see V9__loan_archive.sql); read-only, same id as before
+@Entity
+@Table(name = "borrowing_records_archive", indexes = {
+        // Mirrors the indexes created by the db/migration scripts
+        @Index(name = "idx_archive_due_date_book", columnList = "due_date, book_id"),
+        @Index(name = "idx_archive_member", columnList = "member_id, return_date")
+})
+public class ArchivedBorrowingRecord {
+
+    @Id
+    private Long id;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private LocalDate borrowDate;
+    private LocalDate returnDate;
+    private LocalDate dueDate;
+    private boolean overdue;
+    @Column(precision = 10, scale = 2)
+    private BigDecimal fine;
+    private LocalDate fineAssessedOn;
+    private LocalDate archivedOn;
+
+    // Default constructor
+    public ArchivedBorrowingRecord() {}
+
+    // The loan as it was in borrowing_records
+    public BorrowingRecord toRecord() {
+        BorrowingRecord record = new BorrowingRecord(bookId, memberId, borrowDate, dueDate);
+        record.setId(id);
+        record.setReturnDate(returnDate);
+        record.setOverdue(overdue);
+        record.setFine(fine);
+        record.setFineAssessedOn(fineAssessedOn);
+        return record;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public LocalDate getBorrowDate() {
+        return borrowDate;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public boolean isOverdue() {
+        return overdue;
+    }
+
+    public BigDecimal getFine() {
+        return fine;
+    }
+
+    public LocalDate getFineAssessedOn() {
+        return fineAssessedOn;
+    }
+
+    public LocalDate getArchivedOn() {
+        return archivedOn;
+    }
+}
@@ -1,18 +1,33 @@
 package com.app.library.models;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "books")
+// Second-level cached, region configured in SecondLevelCacheConfig
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "library.book")
+@Table(name = "books", indexes = {
+        // Mirrors the indexes created by the db/migration scripts
+        @Index(name = "idx_books_genre_id", columnList = "genre, id"),
+        @Index(name = "idx_books_author_id", columnList = "author, id"),
+        @Index(name = "idx_books_author_genre_id", columnList = "author, genre, id")
+})
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (see V3__sequence_ids.sql) let Hibernate batch inserts, which IDENTITY prevents
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -0,0 +1,48 @@
+package com.app.library.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// How often a book has been borrowed and returned (see V8__circulation_analytics.sql)
+@Entity
+@Table(name = "book_circulation", indexes = {
+        // Mirrors the indexes created by the db/migration scripts
+        @Index(name = "idx_book_circulation_borrows", columnList = "borrow_count"),
+        @Index(name = "idx_book_circulation_genre", columnList = "genre, borrow_count"),
+        @Index(name = "idx_book_circulation_author", columnList = "author, borrow_count")
+})
+public class BookCirculation {
+
+    @Id
+    private Long bookId;
+    private String genre;
+    private String author;
+    private long borrowCount;
+    private long returnCount;
+
+    // Default constructor
+    public BookCirculation() {}
+
+    // Getters
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getReturnCount() {
+        return returnCount;
+    }
+}
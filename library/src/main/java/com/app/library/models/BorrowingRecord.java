@@ -1,21 +1,38 @@
 package com.app.library.models;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "borrowing_records")
+// Second-level cached, region configured in SecondLevelCacheConfig
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "library.borrowing-record")
+@Table(name = "borrowing_records", indexes = {
+        // Mirrors the indexes created by the db/migration scripts
+        @Index(name = "idx_records_due_date_book", columnList = "due_date, book_id"),
+        @Index(name = "idx_records_active_by_book", columnList = "book_id, return_date, due_date"),
+        @Index(name = "idx_records_active_id", columnList = "return_date, id"),
+        @Index(name = "idx_records_member", columnList = "member_id, return_date, due_date")
+})
 public class BorrowingRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (see V3__sequence_ids.sql) let Hibernate batch inserts, which IDENTITY prevents
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrowing_records_seq")
+    @SequenceGenerator(name = "borrowing_records_seq", sequenceName = "borrowing_records_seq", allocationSize = 50)
     private Long id;
 
     @JsonProperty("bookId")
@@ -27,9 +44,20 @@ public class BorrowingRecord {
     private Long memberId;
 
     private LocalDate borrowDate;
+    // Set by the return endpoints only; clients can read it but not post it
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDate returnDate;
     private LocalDate dueDate;
 
+    // Set by the overdue-scan job while the loan is open past its due date; read-only in JSON
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean overdue;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(precision = 10, scale = 2)
+    private BigDecimal fine;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDate fineAssessedOn;
+
     // Default constructor
     public BorrowingRecord() {}
 
@@ -90,6 +118,30 @@ public class BorrowingRecord {
         this.dueDate = dueDate;
     }
 
+    public boolean isOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(boolean overdue) {
+        this.overdue = overdue;
+    }
+
+    public BigDecimal getFine() {
+        return fine;
+    }
+
+    public void setFine(BigDecimal fine) {
+        this.fine = fine;
+    }
+
+    public LocalDate getFineAssessedOn() {
+        return fineAssessedOn;
+    }
+
+    public void setFineAssessedOn(LocalDate fineAssessedOn) {
+        this.fineAssessedOn = fineAssessedOn;
+    }
+
     // toString
     @Override
     public String toString() {
@@ -100,6 +152,8 @@ public class BorrowingRecord {
                 ", borrowDate=" + borrowDate +
                 ", returnDate=" + returnDate +
                 ", dueDate=" + dueDate +
+                ", overdue=" + overdue +
+                ", fine=" + fine +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.app.library.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// How often books of a genre or an author have been borrowed and returned
+@Entity
+@IdClass(CategoryCirculation.Key.class)
+@Table(name = "category_circulation", indexes = {
+        // Mirrors the index created by the db/migration scripts
+        @Index(name = "idx_category_circulation_kind", columnList = "kind, borrow_count")
+})
+public class CategoryCirculation {
+
+    public enum Kind { GENRE, AUTHOR }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+    @Id
+    private String name;
+    private long borrowCount;
+    private long returnCount;
+
+    // Default constructor
+    public CategoryCirculation() {}
+
+    // Getters
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getReturnCount() {
+        return returnCount;
+    }
+
+    public static class Key implements Serializable {
+
+        private Kind kind;
+        private String name;
+
+        public Key() {}
+
+        public Key(Kind kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && kind == key.kind && Objects.equals(name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, name);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.app.library.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+// Borrows (by borrow date) and returns (by return date) of one day
+@Entity
+@Table(name = "daily_circulation")
+public class DailyCirculation {
+
+    @Id
+    private LocalDate circulationDate;
+    private long borrowCount;
+    private long returnCount;
+
+    // Default constructor
+    public DailyCirculation() {}
+
+    // Getters
+    public LocalDate getCirculationDate() {
+        return circulationDate;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getReturnCount() {
+        return returnCount;
+    }
+}
@@ -0,0 +1,112 @@
+package com.app.library.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+// A member's place in the queue for a book. WAITING holds are served first come, first served;
+// a hold becomes FULFILLED when a copy is lent to the member (recordId is that loan) or CANCELLED.
+@Entity
+@Table(name = "holds", indexes = {
+        // Mirrors the indexes created by the db/migration scripts
+        @Index(name = "idx_holds_book_status_id", columnList = "book_id, status, id"),
+        @Index(name = "idx_holds_member_id", columnList = "member_id, id")
+})
+public class Hold {
+
+    public enum Status { WAITING, FULFILLED, CANCELLED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "holds_seq")
+    @SequenceGenerator(name = "holds_seq", sequenceName = "holds_seq", allocationSize = 50)
+    private Long id;
+    private Long bookId;
+    private Long memberId;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+    private Long recordId;
+
+    // Default constructor
+    public Hold() {}
+
+    // Parameterized constructor
+    public Hold(Long bookId, Long memberId) {
+        this.bookId = bookId;
+        this.memberId = memberId;
+        this.status = Status.WAITING;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Lend the held copy: the hold is done and points at the new loan
+    public void fulfill(Long recordId) {
+        this.status = Status.FULFILLED;
+        this.recordId = recordId;
+        this.resolvedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public Long getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Long recordId) {
+        this.recordId = recordId;
+    }
+}
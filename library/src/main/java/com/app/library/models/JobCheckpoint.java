@@ -0,0 +1,89 @@
+package com.app.library.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of a batch job run: the job has processed every row up to lastId for runDate
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    private String jobName;
+    private LocalDate runDate;
+    private long lastId;
+    private long scanned;
+    private long flagged;
+    private boolean completed;
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public JobCheckpoint() {}
+
+    // Parameterized constructor
+    public JobCheckpoint(String jobName, LocalDate runDate) {
+        this.jobName = jobName;
+        this.runDate = runDate;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public LocalDate getRunDate() {
+        return runDate;
+    }
+
+    public void setRunDate(LocalDate runDate) {
+        this.runDate = runDate;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(long scanned) {
+        this.scanned = scanned;
+    }
+
+    public long getFlagged() {
+        return flagged;
+    }
+
+    public void setFlagged(long flagged) {
+        this.flagged = flagged;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
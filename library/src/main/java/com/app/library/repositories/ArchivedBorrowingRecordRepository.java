@@ -0,0 +1,70 @@
+package com.app.library.repositories;
+
+import com.app.library.dto.DueLoan;
+import com.app.library.dto.LoanExportRow;
+import com.app.library.dto.LoanTotals;
+import com.app.library.dto.MemberLoan;
+import com.app.library.models.ArchivedBorrowingRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The cold history store. Its finders mirror the history finders of BorrowingRecordRepository
+// (same projections and order), so callers can merge the results of both stores.
+@Transactional(readOnly = true)
+public interface ArchivedBorrowingRecordRepository extends JpaRepository<ArchivedBorrowingRecord, Long> {
+
+	// Copy returned loans from the hot table; the caller deletes them there in the same transaction
+	@Transactional
+	@Modifying
+	@Query("insert into ArchivedBorrowingRecord (id, bookId, memberId, borrowDate, returnDate, dueDate, overdue, fine, "
+			+ "fineAssessedOn, archivedOn) select r.id, r.bookId, r.memberId, r.borrowDate, r.returnDate, r.dueDate, "
+			+ "r.overdue, r.fine, r.fineAssessedOn, :archivedOn from BorrowingRecord r "
+			+ "where r.id in :ids and r.returnDate < :cutoff")
+	int copyReturned(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDate cutoff,
+			@Param("archivedOn") LocalDate archivedOn);
+
+	@Query("select max(a.dueDate) from ArchivedBorrowingRecord a")
+	LocalDate findMaxDueDate();
+
+	@Query("select a.id from ArchivedBorrowingRecord a where a.id in :ids")
+	List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("select new com.app.library.dto.DueLoan(a.id, a.memberId, a.dueDate, a.returnDate, b) "
+			+ "from ArchivedBorrowingRecord a join Book b on b.id = a.bookId "
+			+ "where a.dueDate between :from and :to order by a.dueDate, a.id")
+	List<DueLoan> findLoansDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	@Query("select new com.app.library.dto.MemberLoan(a.id, a.bookId, b.title, b.author, a.borrowDate, a.dueDate, "
+			+ "a.returnDate, a.overdue, a.fine) from ArchivedBorrowingRecord a left join Book b on b.id = a.bookId "
+			+ "where a.memberId = :memberId order by a.returnDate desc, a.id desc")
+	List<MemberLoan> findLoanHistoryByMember(@Param("memberId") Long memberId, Limit limit);
+
+	@Query("select new com.app.library.dto.LoanTotals(count(a), sum(a.fine)) from ArchivedBorrowingRecord a where a.memberId = :memberId")
+	LoanTotals findLoanTotalsByMember(@Param("memberId") Long memberId);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.app.library.dto.LoanExportRow(a.id, a.bookId, a.memberId, a.borrowDate, a.dueDate, "
+			+ "a.returnDate, a.overdue, a.fine, a.fineAssessedOn) from ArchivedBorrowingRecord a "
+			+ "where (:from is null or a.borrowDate >= :from) "
+			+ "and (:to is null or a.borrowDate <= :to) order by a.id")
+	Stream<LoanExportRow> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.app.library.dto.LoanExportRow(a.id, a.bookId, a.memberId, a.borrowDate, a.dueDate, "
+			+ "a.returnDate, a.overdue, a.fine, a.fineAssessedOn) from ArchivedBorrowingRecord a "
+			+ "where a.memberId = :memberId and (:from is null or a.borrowDate >= :from) "
+			+ "and (:to is null or a.borrowDate <= :to) order by a.id")
+	Stream<LoanExportRow> streamForExportByMember(@Param("memberId") Long memberId,
+			@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,52 @@
+package com.app.library.repositories;
+
+import com.app.library.dto.TopBook;
+import com.app.library.models.BookCirculation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface BookCirculationRepository extends JpaRepository<BookCirculation, Long> {
+
+	// Most borrowed books overall, of a genre or of an author; each walks its borrow_count index from the top
+	@Query("select new com.app.library.dto.TopBook(c.bookId, b.title, c.author, c.genre, c.borrowCount, c.returnCount) "
+			+ "from BookCirculation c left join Book b on b.id = c.bookId order by c.borrowCount desc, c.bookId")
+	List<TopBook> findTop(Limit limit);
+
+	@Query("select new com.app.library.dto.TopBook(c.bookId, b.title, c.author, c.genre, c.borrowCount, c.returnCount) "
+			+ "from BookCirculation c left join Book b on b.id = c.bookId where c.genre = :genre "
+			+ "order by c.borrowCount desc, c.bookId")
+	List<TopBook> findTopByGenre(@Param("genre") String genre, Limit limit);
+
+	@Query("select new com.app.library.dto.TopBook(c.bookId, b.title, c.author, c.genre, c.borrowCount, c.returnCount) "
+			+ "from BookCirculation c left join Book b on b.id = c.bookId where c.author = :author "
+			+ "order by c.borrowCount desc, c.bookId")
+	List<TopBook> findTopByAuthor(@Param("author") String author, Limit limit);
+
+	// Add to a book's counters (creating its row on first use) and record its current genre/author
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_circulation"))
+	@Query(nativeQuery = true, value = "merge into book_circulation c using (values (:bookId, "
+			+ "cast(:genre as varchar(255)), cast(:author as varchar(255)), :borrows, :returns)) "
+			+ "s(book_id, genre, author, borrows, returns) on c.book_id = s.book_id "
+			+ "when matched then update set genre = s.genre, author = s.author, "
+			+ "borrow_count = c.borrow_count + s.borrows, return_count = c.return_count + s.returns "
+			+ "when not matched then insert (book_id, genre, author, borrow_count, return_count) "
+			+ "values (s.book_id, s.genre, s.author, s.borrows, s.returns)")
+	int add(@Param("bookId") Long bookId, @Param("genre") String genre, @Param("author") String author,
+			@Param("borrows") long borrows, @Param("returns") long returns);
+
+	@Transactional
+	@Modifying
+	@Query("update BookCirculation c set c.genre = :genre, c.author = :author where c.bookId = :bookId")
+	int relabel(@Param("bookId") Long bookId, @Param("genre") String genre, @Param("author") String author);
+}
@@ -1,11 +1,92 @@
 package com.app.library.repositories;
 
 import com.app.library.models.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+// Queries run in read-only transactions (routed to the read pool, see DataSourceConfig) unless
+// they join a read-write one; modifying queries declare their own @Transactional
+@Transactional(readOnly = true)
 public interface BookRepository extends JpaRepository<Book, Long> {
+	// The genre/author finders are query-cached (region library.book-queries): a hit returns the ids
+	// and the books come from the entity region. Any write to the books table, including the bulk
+	// copy updates below, invalidates every cached result. Keyset pages are not cached, their
+	// cursors rarely repeat.
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "library.book-queries")})
 	List<Book> findByGenre(String genre);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "library.book-queries")})
 	List<Book> findByAuthor(String author);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "library.book-queries")})
 	List<Book> findByAuthorAndGenre(String author, String genre);
+
+	// Id-only variants of the finders above, used for the cached genre/author result lists
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "library.book-queries")})
+	@Query("select b.id from Book b where b.genre = :genre order by b.id")
+	List<Long> findIdsByGenre(@Param("genre") String genre);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "library.book-queries")})
+	@Query("select b.id from Book b where b.author = :author order by b.id")
+	List<Long> findIdsByAuthor(@Param("author") String author);
+
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "library.book-queries")})
+	@Query("select b.id from Book b where b.author = :author and b.genre = :genre order by b.id")
+	List<Long> findIdsByAuthorAndGenre(@Param("author") String author, @Param("genre") String genre);
+
+	// Keyset (cursor) pages ordered by id: every page starts strictly after the last id of the previous one
+	List<Book> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+	List<Book> findByGenreAndIdGreaterThanOrderByIdAsc(String genre, Long after, Limit limit);
+	List<Book> findByAuthorAndIdGreaterThanOrderByIdAsc(String author, Long after, Limit limit);
+	List<Book> findByAuthorAndGenreAndIdGreaterThanOrderByIdAsc(String author, String genre, Long after, Limit limit);
+
+	// Guarded decrement: takes one copy only if one is left, returns the number of rows changed (0 or 1)
+	@Transactional
+	@Modifying
+	@Query("update Book b set b.availableCopies = b.availableCopies - 1 where b.id = :id and b.availableCopies > 0")
+	int decrementAvailableCopies(@Param("id") Long id);
+
+	@Transactional
+	@Modifying
+	@Query("update Book b set b.availableCopies = b.availableCopies + 1 where b.id = :id")
+	int incrementAvailableCopies(@Param("id") Long id);
+
+	// Row lock on the book for the rest of the transaction; serializes hold placement with returns
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from Book b where b.id = :id")
+	Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+	// Row locks on several books, taken in id order so concurrent batches cannot deadlock
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from Book b where b.id in :ids order by b.id")
+	List<Book> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+	// Set-based variants for batches: every listed book gives or gets back the same number of copies
+	@Transactional
+	@Modifying
+	@Query("update Book b set b.availableCopies = b.availableCopies - :copies where b.id in :ids and b.availableCopies >= :copies")
+	int decrementAvailableCopies(@Param("ids") Collection<Long> ids, @Param("copies") int copies);
+
+	@Transactional
+	@Modifying
+	@Query("update Book b set b.availableCopies = b.availableCopies + :copies where b.id in :ids")
+	int incrementAvailableCopies(@Param("ids") Collection<Long> ids, @Param("copies") int copies);
 }
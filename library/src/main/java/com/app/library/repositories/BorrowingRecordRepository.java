@@ -1,11 +1,116 @@
 package com.app.library.repositories;
 
+import com.app.library.dto.ActiveLoan;
+import com.app.library.dto.DueLoan;
+import com.app.library.dto.LoanExportRow;
+import com.app.library.dto.LoanTotals;
+import com.app.library.dto.MemberLoan;
 import com.app.library.models.BorrowingRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+@Transactional(readOnly = true)
 public interface BorrowingRecordRepository extends JpaRepository<BorrowingRecord, Long> {
 	List<BorrowingRecord> findByDueDate(LocalDate dueDate);
 	List<BorrowingRecord> findByBookIdAndReturnDateIsNull(Long bookId);
+
+	// Loans due in [from, to] joined with their books in a single query (no per-record book lookups)
+	@Query("select new com.app.library.dto.DueLoan(r.id, r.memberId, r.dueDate, r.returnDate, b) "
+			+ "from BorrowingRecord r join Book b on b.id = r.bookId "
+			+ "where r.dueDate between :from and :to order by r.dueDate, r.id")
+	List<DueLoan> findLoansDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	// Keyset page over all active loans, ordered by record id
+	@Query("select new com.app.library.dto.ActiveLoan(r.id, r.bookId, r.dueDate) from BorrowingRecord r "
+			+ "where r.returnDate is null and r.id > :after order by r.id")
+	List<ActiveLoan> findActiveLoansAfter(@Param("after") Long after, Limit limit);
+
+	// Open loans of a member with their books, earliest due first
+	@Query("select new com.app.library.dto.MemberLoan(r.id, r.bookId, b.title, b.author, r.borrowDate, r.dueDate, "
+			+ "r.returnDate, r.overdue, r.fine) from BorrowingRecord r left join Book b on b.id = r.bookId "
+			+ "where r.memberId = :memberId and r.returnDate is null order by r.dueDate, r.id")
+	List<MemberLoan> findActiveLoansByMember(@Param("memberId") Long memberId);
+
+	// Returned loans of a member with their books, most recently returned first
+	@Query("select new com.app.library.dto.MemberLoan(r.id, r.bookId, b.title, b.author, r.borrowDate, r.dueDate, "
+			+ "r.returnDate, r.overdue, r.fine) from BorrowingRecord r left join Book b on b.id = r.bookId "
+			+ "where r.memberId = :memberId and r.returnDate is not null order by r.returnDate desc, r.id desc")
+	List<MemberLoan> findLoanHistoryByMember(@Param("memberId") Long memberId, Limit limit);
+
+	@Query("select new com.app.library.dto.LoanTotals(count(r), sum(r.fine)) from BorrowingRecord r where r.memberId = :memberId")
+	LoanTotals findLoanTotalsByMember(@Param("memberId") Long memberId);
+
+	// Keyset page over active loans that were due before the given day, ordered by record id
+	@Query("select new com.app.library.dto.ActiveLoan(r.id, r.bookId, r.dueDate) from BorrowingRecord r "
+			+ "where r.returnDate is null and r.dueDate < :today and r.id > :after order by r.id")
+	List<ActiveLoan> findOverdueLoansAfter(@Param("after") Long after, @Param("today") LocalDate today, Limit limit);
+
+	// Flags open loans as overdue with the given fine; returned loans are left untouched
+	@Transactional
+	@Modifying
+	@Query("update BorrowingRecord r set r.overdue = true, r.fine = :fine, r.fineAssessedOn = :assessedOn "
+			+ "where r.id in :ids and r.returnDate is null")
+	int markOverdue(@Param("ids") Collection<Long> ids, @Param("fine") BigDecimal fine, @Param("assessedOn") LocalDate assessedOn);
+
+	// Guarded return: only an open loan can be closed, so a record is never returned twice
+	@Transactional
+	@Modifying
+	@Query("update BorrowingRecord r set r.returnDate = :returnDate where r.id = :id and r.returnDate is null")
+	int markReturned(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
+
+	// Row locks on several records, taken in id order so concurrent batches cannot deadlock
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from BorrowingRecord r where r.id in :ids order by r.id")
+	List<BorrowingRecord> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+	// Set-based guarded return for batches
+	@Transactional
+	@Modifying
+	@Query("update BorrowingRecord r set r.returnDate = :returnDate where r.id in :ids and r.returnDate is null")
+	int markReturned(@Param("ids") Collection<Long> ids, @Param("returnDate") LocalDate returnDate);
+
+	// Loans returned before the cutoff, oldest return first (read from idx_records_active_id), for the archive job
+	@Query("select r.id from BorrowingRecord r where r.returnDate < :cutoff order by r.returnDate, r.id")
+	List<Long> findIdsReturnedBefore(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+	// Second half of moving loans to the archive (see ArchivedBorrowingRecordRepository.copyReturned)
+	@Transactional
+	@Modifying
+	@Query("delete from BorrowingRecord r where r.id in :ids and r.returnDate < :cutoff")
+	int deleteReturned(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDate cutoff);
+
+	// Book ids of the most recent loans, newest first (repeats included)
+	@Query("select r.bookId from BorrowingRecord r order by r.id desc")
+	List<Long> findRecentBookIds(Limit limit);
+
+	// Export cursors: rows are fetched from the database in batches while the stream is consumed
+	// (the caller must keep the transaction open and close the stream)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.app.library.dto.LoanExportRow(r.id, r.bookId, r.memberId, r.borrowDate, r.dueDate, "
+			+ "r.returnDate, r.overdue, r.fine, r.fineAssessedOn) from BorrowingRecord r "
+			+ "where (:from is null or r.borrowDate >= :from) "
+			+ "and (:to is null or r.borrowDate <= :to) order by r.id")
+	Stream<LoanExportRow> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.app.library.dto.LoanExportRow(r.id, r.bookId, r.memberId, r.borrowDate, r.dueDate, "
+			+ "r.returnDate, r.overdue, r.fine, r.fineAssessedOn) from BorrowingRecord r "
+			+ "where r.memberId = :memberId and (:from is null or r.borrowDate >= :from) "
+			+ "and (:to is null or r.borrowDate <= :to) order by r.id")
+	Stream<LoanExportRow> streamForExportByMember(@Param("memberId") Long memberId,
+			@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,32 @@
+package com.app.library.repositories;
+
+import com.app.library.models.CategoryCirculation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface CategoryCirculationRepository extends JpaRepository<CategoryCirculation, CategoryCirculation.Key> {
+
+	List<CategoryCirculation> findByKindOrderByBorrowCountDescNameAsc(CategoryCirculation.Kind kind, Limit limit);
+
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_circulation"))
+	@Query(nativeQuery = true, value = "merge into category_circulation c using (values (:kind, "
+			+ "cast(:name as varchar(255)), :borrows, :returns)) s(kind, name, borrows, returns) "
+			+ "on c.kind = s.kind and c.name = s.name "
+			+ "when matched then update set borrow_count = c.borrow_count + s.borrows, "
+			+ "return_count = c.return_count + s.returns "
+			+ "when not matched then insert (kind, name, borrow_count, return_count) "
+			+ "values (s.kind, s.name, s.borrows, s.returns)")
+	int add(@Param("kind") String kind, @Param("name") String name,
+			@Param("borrows") long borrows, @Param("returns") long returns);
+}
@@ -0,0 +1,31 @@
+package com.app.library.repositories;
+
+import com.app.library.models.DailyCirculation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDate;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface DailyCirculationRepository extends JpaRepository<DailyCirculation, LocalDate> {
+
+	List<DailyCirculation> findByCirculationDateBetweenOrderByCirculationDateAsc(LocalDate from, LocalDate to);
+
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_circulation"))
+	@Query(nativeQuery = true, value = "merge into daily_circulation c using (values (cast(:date as date), "
+			+ ":borrows, :returns)) s(circulation_date, borrows, returns) "
+			+ "on c.circulation_date = s.circulation_date "
+			+ "when matched then update set borrow_count = c.borrow_count + s.borrows, "
+			+ "return_count = c.return_count + s.returns "
+			+ "when not matched then insert (circulation_date, borrow_count, return_count) "
+			+ "values (s.circulation_date, s.borrows, s.returns)")
+	int add(@Param("date") LocalDate date, @Param("borrows") long borrows, @Param("returns") long returns);
+}
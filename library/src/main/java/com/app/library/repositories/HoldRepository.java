@@ -0,0 +1,35 @@
+package com.app.library.repositories;
+
+import com.app.library.models.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+	// Head of a book's queue
+	Optional<Hold> findFirstByBookIdAndStatusOrderByIdAsc(Long bookId, Hold.Status status);
+	List<Hold> findByBookIdAndStatusOrderByIdAsc(Long bookId, Hold.Status status);
+	List<Hold> findByMemberIdOrderByIdDesc(Long memberId);
+	List<Hold> findByStatusOrderByIdAsc(Hold.Status status);
+	boolean existsByBookIdAndStatus(Long bookId, Hold.Status status);
+	boolean existsByBookIdAndMemberIdAndStatus(Long bookId, Long memberId, Hold.Status status);
+
+	// Guarded state change: only a waiting hold can be claimed for a copy or cancelled,
+	// so a hold is never served twice nor cancelled after it was served
+	@Transactional
+	@Modifying
+	@Query("update Hold h set h.status = :status, h.resolvedAt = :at where h.id = :id "
+			+ "and h.status = com.app.library.models.Hold.Status.WAITING")
+	int resolveWaiting(@Param("id") Long id, @Param("status") Hold.Status status, @Param("at") LocalDateTime at);
+
+	@Query("select distinct h.bookId from Hold h where h.bookId in :bookIds "
+			+ "and h.status = com.app.library.models.Hold.Status.WAITING")
+	List<Long> findBookIdsWithWaitingHolds(@Param("bookIds") Collection<Long> bookIds);
+}
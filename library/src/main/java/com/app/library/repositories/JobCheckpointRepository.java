@@ -0,0 +1,9 @@
+package com.app.library.repositories;
+
+import com.app.library.models.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -2,7 +2,9 @@ package com.app.library.repositories;
 
 import com.app.library.models.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
 }
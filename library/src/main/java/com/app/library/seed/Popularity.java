@@ -0,0 +1,41 @@
+package com.app.library.seed;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Zipfian popularity over book ids 1..n. Ranks are dealt to ids by a seeded shuffle, so the
+// bestsellers are scattered over the catalog instead of being the lowest ids, and anyone with the
+// same seed (the seed generator, the load driver) agrees on which books they are.
+public final class Popularity {
+
+    private final int[] bookByRank;
+    private final ZipfDistribution distribution;
+
+    public Popularity(int books, double exponent, long seed) {
+        distribution = new ZipfDistribution(books, exponent);
+        bookByRank = new int[books];
+        for (int i = 0; i < books; i++) {
+            bookByRank[i] = i + 1;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = books - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = bookByRank[i];
+            bookByRank[i] = bookByRank[j];
+            bookByRank[j] = swap;
+        }
+    }
+
+    public int books() {
+        return bookByRank.length;
+    }
+
+    // Book id holding a rank in 1..n (1 = most popular)
+    public long bookAt(int rank) {
+        return bookByRank[rank - 1];
+    }
+
+    public long sample(RandomGenerator random) {
+        return bookAt(distribution.sample(random));
+    }
+}
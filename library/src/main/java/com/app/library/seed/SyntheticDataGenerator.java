@@ -0,0 +1,248 @@
+package com.app.library.seed;
+
+import com.app.library.services.AnalyticsService;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Fills an empty database with a synthetic library (seed profile, application-seed.properties):
+// books, members and a borrowing history of any size, the same for the same library.seed.random-seed.
+// Borrows follow a Zipfian title popularity (see Popularity), popular titles are stocked with more
+// copies, and loans run in id order over library.seed.history-days up to today; recent loans may
+// still be open. Rows are written with JDBC batches, one transaction per batch, then the id
+// sequences and the analytics counters are brought up to date. This runs before the application
+// is ready, so the in-memory indexes load the seeded catalog. A database that already has books
+// (e.g. a persistent one on restart) is left alone.
+@Component
+@Profile("seed")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // allocationSize of the entity id sequences
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final int LOAN_DAYS = 14;
+
+    private static final String[] GENRES = {
+            "Fiction", "Mystery", "Fantasy", "Science Fiction", "Romance", "Thriller", "Biography", "History",
+            "Children", "Young Adult", "Poetry", "Science", "Travel", "Cooking", "Art", "Philosophy",
+            "Business", "Health", "Religion", "Horror"};
+    private static final String[] ADJECTIVES = {
+            "Silent", "Hidden", "Last", "Broken", "Golden", "Dark", "Forgotten", "Endless", "Crimson", "Lost",
+            "Burning", "Distant", "Frozen", "Secret", "Wild", "Quiet", "Final", "Hollow", "Bright", "Ancient",
+            "Little", "Open", "Restless", "Northern"};
+    private static final String[] NOUNS = {
+            "River", "Garden", "House", "Kingdom", "Shadow", "Mountain", "Letter", "Storm", "Road", "Island",
+            "Winter", "Harbor", "Forest", "Mirror", "City", "Promise", "Orchard", "Bridge", "Station", "Voyage",
+            "Lighthouse", "Empire", "Song", "Witness"};
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Ben", "Clara", "David", "Elena", "Farid", "Grace", "Hugo", "Iris", "Jonas", "Kira", "Leo",
+            "Maya", "Noah", "Olga", "Pablo", "Quinn", "Rosa", "Sami", "Tara", "Umar", "Vera", "Wei", "Yara"};
+    private static final String[] LAST_NAMES = {
+            "Adams", "Brook", "Castillo", "Dubois", "Eriksen", "Fischer", "Garcia", "Hughes", "Ivanova", "Jensen",
+            "Kim", "Larsen", "Moreau", "Nakamura", "Okafor", "Petrov", "Quist", "Rossi", "Singh", "Tanaka",
+            "Ulrich", "Varga", "Weber", "Zhang"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Value("${library.seed.random-seed:42}")
+    private long seed;
+
+    @Value("${library.seed.books:100000}")
+    private int books;
+
+    @Value("${library.seed.members:20000}")
+    private int members;
+
+    @Value("${library.seed.records:1000000}")
+    private int records;
+
+    @Value("${library.seed.zipf-exponent:1.0}")
+    private double zipfExponent;
+
+    // Copies of the most popular title; the others get fewer, down to one
+    @Value("${library.seed.max-copies:50}")
+    private int maxCopies;
+
+    @Value("${library.seed.history-days:1095}")
+    private int historyDays;
+
+    @Value("${library.seed.batch-size:10000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from books", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Seed skipped, the database already has " + existing + " books");
+            return;
+        }
+        generate(LocalDate.now());
+    }
+
+    public void generate(LocalDate today) {
+        long started = System.nanoTime();
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom bookRandom = root.split();
+        SplittableRandom memberRandom = root.split();
+        SplittableRandom loanRandom = root.split();
+        Popularity popularity = new Popularity(books, zipfExponent, seed);
+
+        int[] copies = new int[books + 1];
+        for (int rank = 1; rank <= books; rank++) {
+            copies[(int) popularity.bookAt(rank)] = 1 + (int) (maxCopies / Math.pow(rank, zipfExponent)) + bookRandom.nextInt(3);
+        }
+        int[] open = new int[books + 1];
+
+        insertMembers(memberRandom, today);
+        insertLoans(loanRandom, popularity, copies, open, today);
+        insertBooks(bookRandom, copies, open, today);
+
+        jdbcTemplate.execute("alter sequence books_seq restart with " + (books + ID_ALLOCATION_SIZE));
+        jdbcTemplate.execute("alter sequence members_seq restart with " + (members + ID_ALLOCATION_SIZE));
+        jdbcTemplate.execute("alter sequence borrowing_records_seq restart with " + (records + ID_ALLOCATION_SIZE));
+        analyticsService.rebuildFromHistory();
+        jdbcTemplate.execute("analyze");
+        logger.info("Seeded " + books + " books, " + members + " members and " + records + " borrowing records (seed "
+                + seed + ") in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+
+    // ==================== Tables ====================
+
+    private void insertMembers(SplittableRandom random, LocalDate today) {
+        insert("members", "insert into members (id, name, email, phone_number, start_date, end_date) values (?, ?, ?, ?, ?, ?)",
+                members, (statement, id) -> {
+                    String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                    String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    LocalDate start = today.minusDays(random.nextInt(historyDays + 365));
+                    statement.setLong(1, id);
+                    statement.setString(2, first + " " + last);
+                    statement.setString(3, first.toLowerCase() + "." + last.toLowerCase() + id + "@example.org");
+                    statement.setString(4, String.format("555-%04d", random.nextInt(10_000)));
+                    statement.setDate(5, Date.valueOf(start));
+                    statement.setDate(6, Date.valueOf(start.plusYears(1 + random.nextInt(5))));
+                });
+    }
+
+    // Loans in id order over the history window. A loan may stay open while less than half of its
+    // book's copies are out (all of a single copy), so even bestsellers keep copies to borrow
+    private void insertLoans(SplittableRandom random, Popularity popularity, int[] copies, int[] open, LocalDate today) {
+        LocalDate first = today.minusDays(historyDays);
+        insert("borrowing_records", "insert into borrowing_records (id, book_id, member_id, borrow_date, due_date, return_date) "
+                + "values (?, ?, ?, ?, ?, ?)", records, (statement, id) -> {
+                    int book = (int) popularity.sample(random);
+                    long day = (id - 1) * (historyDays + 1) / records;
+                    LocalDate borrowed = first.plusDays(day);
+                    int age = (int) (historyDays - day);
+                    statement.setLong(1, id);
+                    statement.setLong(2, book);
+                    statement.setLong(3, 1 + random.nextInt(members));
+                    statement.setDate(4, Date.valueOf(borrowed));
+                    statement.setDate(5, Date.valueOf(borrowed.plusDays(LOAN_DAYS)));
+                    if (random.nextDouble() < openChance(age) && open[book] * 2 < copies[book]) {
+                        open[book]++;
+                        statement.setNull(6, Types.DATE);
+                    } else {
+                        // Mostly within the loan period, some late
+                        statement.setDate(6, Date.valueOf(borrowed.plusDays(random.nextInt(Math.min(LOAN_DAYS * 2, age) + 1))));
+                    }
+                });
+    }
+
+    private void insertBooks(SplittableRandom random, int[] copies, int[] open, LocalDate today) {
+        ZipfDistribution genres = new ZipfDistribution(GENRES.length, 0.7);
+        // About eight books per author, a few of them prolific
+        ZipfDistribution authors = new ZipfDistribution(Math.max(1, books / 8), 0.8);
+        insert("books", "insert into books (id, title, author, publication_year, genre, available_copies) values (?, ?, ?, ?, ?, ?)",
+                books, (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, title(random));
+                    statement.setString(3, author(authors.sample(random)));
+                    statement.setInt(4, Math.max(1900, today.getYear() - (int) Math.abs(random.nextGaussian() * 25)));
+                    statement.setString(5, GENRES[genres.sample(random) - 1]);
+                    statement.setInt(6, copies[(int) id] - open[(int) id]);
+                });
+    }
+
+    // ==================== Values ====================
+
+    private static double openChance(int age) {
+        if (age <= LOAN_DAYS + 7) {
+            return 0.6;
+        }
+        return age <= 90 ? 0.03 : 0.002;
+    }
+
+    private static String title(SplittableRandom random) {
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        String other = NOUNS[random.nextInt(NOUNS.length)];
+        return switch (random.nextInt(4)) {
+            case 0 -> "The " + adjective + " " + noun;
+            case 1 -> noun + " of the " + adjective + " " + other;
+            case 2 -> "The " + noun + "'s " + other;
+            default -> adjective + " " + noun + "s";
+        };
+    }
+
+    // Distinct names for every author number
+    private static String author(int number) {
+        int index = number - 1;
+        String name = FIRST_NAMES[index % FIRST_NAMES.length] + " "
+                + (char) ('A' + index / FIRST_NAMES.length % 26) + ". "
+                + LAST_NAMES[index / (FIRST_NAMES.length * 26) % LAST_NAMES.length];
+        int round = index / (FIRST_NAMES.length * 26 * LAST_NAMES.length);
+        return round == 0 ? name : name + " " + (round + 1);
+    }
+
+    // ==================== Batches ====================
+
+    private interface RowWriter {
+        void write(PreparedStatement statement, long id) throws SQLException;
+    }
+
+    // Rows 1..count in batches, each committed in its own transaction
+    private void insert(String table, String sql, int count, RowWriter writer) {
+        long started = System.nanoTime();
+        for (long from = 1; from <= count; from += batchSize) {
+            long first = from;
+            int size = (int) Math.min(batchSize, count - from + 1);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    writer.write(statement, first + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            }));
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        logger.info("Seeded " + count + " rows into " + table + " in " + millis + " ms (" + count * 1000L / millis + " rows/s)");
+    }
+}
@@ -0,0 +1,283 @@
+package com.app.library.services;
+
+import com.app.library.dto.CirculationBucket;
+import com.app.library.dto.TopBook;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.events.LoanEvent;
+import com.app.library.models.Book;
+import com.app.library.models.CategoryCirculation;
+import com.app.library.models.DailyCirculation;
+import com.app.library.repositories.BookCirculationRepository;
+import com.app.library.repositories.BookRepository;
+import com.app.library.repositories.CategoryCirculationRepository;
+import com.app.library.repositories.DailyCirculationRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Circulation analytics from materialized counters: per book, per genre and author, and per day
+// (V8__circulation_analytics.sql backfilled them from the history). Each borrow and return writes
+// a row to circulation_outbox in its own transaction, and a background flush
+// (library.analytics.flush-ms) sums the rows and applies them with one upsert per touched book,
+// category and day, deleting them in the same transaction. A change is thus never lost, even if the
+// application stops before the flush, and never applied twice; a failed flush leaves the rows for
+// the next. Dashboard queries read the counter tables only, so their cost does not depend on how
+// much history there is; they lag behind the loans by about one flush interval.
+@Service
+public class AnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    // Books per lookup when resolving genre and author at flush time
+    private static final int LOOKUP_CHUNK = 1000;
+
+    // Outbox rows applied per flush transaction
+    private static final int FLUSH_CHUNK = 10_000;
+
+    // Hot and archived loans, for rebuildFromHistory
+    private static final String ALL_LOANS = "select book_id, borrow_date, return_date from borrowing_records "
+            + "union all select book_id, borrow_date, return_date from borrowing_records_archive";
+
+    public enum Bucket { DAY, WEEK, MONTH }
+
+    private record Delta(long borrows, long returns) {
+        static final Delta BORROW = new Delta(1, 0);
+        static final Delta RETURN = new Delta(0, 1);
+        static final Delta NONE = new Delta(0, 0);
+
+        Delta plus(Delta other) {
+            return new Delta(borrows + other.borrows, returns + other.returns);
+        }
+    }
+
+    @Autowired
+    private BookCirculationRepository bookCirculationRepository;
+
+    @Autowired
+    private CategoryCirculationRepository categoryCirculationRepository;
+
+    @Autowired
+    private DailyCirculationRepository dailyCirculationRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ==================== Updates ====================
+
+    // Before commit, so the outbox row commits or rolls back with the loan
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onLoan(LoanEvent event) {
+        Delta delta = event.kind() == LoanEvent.Kind.BORROWED ? Delta.BORROW : Delta.RETURN;
+        writeOutbox(event.bookId(), event.date(), delta);
+    }
+
+    // A book moved to another genre or author: its row follows at the next flush (category totals
+    // keep counting past loans under the genre/author the book had then)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.kind() == BookChangedEvent.Kind.UPDATED) {
+            writeOutbox(event.bookId(), null, Delta.NONE);
+        }
+    }
+
+    private void writeOutbox(Long bookId, LocalDate date, Delta delta) {
+        jdbcTemplate.update("insert into circulation_outbox (book_id, circulation_date, borrow_count, return_count) "
+                + "values (?, ?, ?, ?)", bookId, date, delta.borrows(), delta.returns());
+    }
+
+    @Scheduled(fixedDelayString = "${library.analytics.flush-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    // Apply all outbox rows, a chunk per transaction; returns the number of upserts
+    public synchronized int flush() {
+        int upserts = 0;
+        try {
+            while (true) {
+                int[] applied = transactionTemplate.execute(status -> applyChunk());
+                upserts += applied[1];
+                if (applied[0] < FLUSH_CHUNK) {
+                    return upserts;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Analytics flush failed, the outbox is kept for the next attempt", e);
+            return upserts;
+        }
+    }
+
+    // { outbox rows applied, upserts }
+    private int[] applyChunk() {
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Delta> books = new HashMap<>();
+        Map<LocalDate, Delta> days = new HashMap<>();
+        jdbcTemplate.query("select id, book_id, circulation_date, borrow_count, return_count from circulation_outbox "
+                + "order by id limit " + FLUSH_CHUNK, rs -> {
+            ids.add(rs.getLong(1));
+            Long bookId = rs.getObject(2, Long.class);
+            LocalDate date = rs.getObject(3, LocalDate.class);
+            Delta delta = new Delta(rs.getInt(4), rs.getInt(5));
+            if (bookId != null) {
+                books.merge(bookId, delta, Delta::plus);
+            }
+            if (date != null) {
+                days.merge(date, delta, Delta::plus);
+            }
+        });
+        if (ids.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        int upserts = apply(books, days);
+        // By id, not by range: a row committed since the select is left for the next flush
+        jdbcTemplate.batchUpdate("delete from circulation_outbox where id = ?", ids, LOOKUP_CHUNK,
+                (statement, id) -> statement.setLong(1, id));
+        return new int[] {ids.size(), upserts};
+    }
+
+    private int apply(Map<Long, Delta> books, Map<LocalDate, Delta> days) {
+        Map<Long, Book> catalog = new HashMap<>();
+        List<Long> ids = new ArrayList<>(books.keySet());
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            for (Book book : bookRepository.findAllById(ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size())))) {
+                catalog.put(book.getId(), book);
+            }
+        }
+
+        int upserts = 0;
+        Map<String, Delta> genres = new HashMap<>();
+        Map<String, Delta> authors = new HashMap<>();
+        for (Map.Entry<Long, Delta> entry : books.entrySet()) {
+            Book book = catalog.get(entry.getKey());
+            String genre = book == null ? null : book.getGenre();
+            String author = book == null ? null : book.getAuthor();
+            Delta delta = entry.getValue();
+            if (delta.equals(Delta.NONE)) {
+                // Only relabelled: books that were never borrowed get no row
+                if (book != null) {
+                    upserts += bookCirculationRepository.relabel(entry.getKey(), genre, author);
+                }
+                continue;
+            }
+            upserts += bookCirculationRepository.add(entry.getKey(), genre, author, delta.borrows(), delta.returns());
+            if (genre != null) {
+                genres.merge(genre, delta, Delta::plus);
+            }
+            if (author != null) {
+                authors.merge(author, delta, Delta::plus);
+            }
+        }
+        for (Map.Entry<String, Delta> entry : genres.entrySet()) {
+            upserts += categoryCirculationRepository.add(CategoryCirculation.Kind.GENRE.name(), entry.getKey(),
+                    entry.getValue().borrows(), entry.getValue().returns());
+        }
+        for (Map.Entry<String, Delta> entry : authors.entrySet()) {
+            upserts += categoryCirculationRepository.add(CategoryCirculation.Kind.AUTHOR.name(), entry.getKey(),
+                    entry.getValue().borrows(), entry.getValue().returns());
+        }
+        for (Map.Entry<LocalDate, Delta> entry : days.entrySet()) {
+            upserts += dailyCirculationRepository.add(entry.getKey(), entry.getValue().borrows(), entry.getValue().returns());
+        }
+        return upserts;
+    }
+
+    // Recompute every counter from the loan history, as V8 did, for loans written without LoanEvents
+    // (e.g. by the seed generator). The outbox is emptied, the history already holds its changes.
+    // The history is both loan stores, borrowing_records and borrowing_records_archive.
+    public synchronized void rebuildFromHistory() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from circulation_outbox");
+            jdbcTemplate.update("delete from book_circulation");
+            jdbcTemplate.update("delete from category_circulation");
+            jdbcTemplate.update("delete from daily_circulation");
+            jdbcTemplate.update("insert into book_circulation (book_id, genre, author, borrow_count, return_count) "
+                    + "select r.book_id, b.genre, b.author, count(*), count(r.return_date) "
+                    + "from (" + ALL_LOANS + ") r left join books b on b.id = r.book_id "
+                    + "where r.book_id is not null group by r.book_id, b.genre, b.author");
+            for (CategoryCirculation.Kind kind : CategoryCirculation.Kind.values()) {
+                String column = kind == CategoryCirculation.Kind.GENRE ? "genre" : "author";
+                jdbcTemplate.update("insert into category_circulation (kind, name, borrow_count, return_count) "
+                        + "select ?, " + column + ", sum(borrow_count), sum(return_count) from book_circulation "
+                        + "where " + column + " is not null group by " + column, kind.name());
+            }
+            jdbcTemplate.update("insert into daily_circulation (circulation_date, borrow_count, return_count) "
+                    + "select d, sum(b), sum(r) from ("
+                    + "select borrow_date as d, 1 as b, 0 as r from (" + ALL_LOANS + ") where borrow_date is not null "
+                    + "union all select return_date, 0, 1 from (" + ALL_LOANS + ") where return_date is not null"
+                    + ") group by d");
+        });
+    }
+
+    // ==================== Queries ====================
+
+    // Most borrowed books, optionally of one genre or one author
+    public List<TopBook> topBooks(String genre, String author, int limit) {
+        if (genre != null) {
+            return bookCirculationRepository.findTopByGenre(genre, Limit.of(limit));
+        }
+        if (author != null) {
+            return bookCirculationRepository.findTopByAuthor(author, Limit.of(limit));
+        }
+        return bookCirculationRepository.findTop(Limit.of(limit));
+    }
+
+    public List<CategoryCirculation> topCategories(CategoryCirculation.Kind kind, int limit) {
+        return categoryCirculationRepository.findByKindOrderByBorrowCountDescNameAsc(kind, Limit.of(limit));
+    }
+
+    // Borrows and returns per day, week or month from from to to (inclusive); buckets without
+    // activity are included with zero counts
+    public List<CirculationBucket> circulation(LocalDate from, LocalDate to, Bucket bucket) {
+        Map<LocalDate, long[]> totals = new LinkedHashMap<>();
+        for (LocalDate start = bucketStart(from, bucket); !start.isAfter(to); start = nextBucket(start, bucket)) {
+            totals.put(start, new long[2]);
+        }
+        for (DailyCirculation day : dailyCirculationRepository.findByCirculationDateBetweenOrderByCirculationDateAsc(from, to)) {
+            long[] total = totals.get(bucketStart(day.getCirculationDate(), bucket));
+            total[0] += day.getBorrowCount();
+            total[1] += day.getReturnCount();
+        }
+        List<CirculationBucket> series = new ArrayList<>(totals.size());
+        totals.forEach((start, total) -> series.add(new CirculationBucket(start, total[0], total[1])));
+        return series;
+    }
+
+    private static LocalDate bucketStart(LocalDate date, Bucket bucket) {
+        return switch (bucket) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate start, Bucket bucket) {
+        return switch (bucket) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
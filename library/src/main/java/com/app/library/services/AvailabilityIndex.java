@@ -0,0 +1,153 @@
+package com.app.library.services;
+
+import com.app.library.dto.ActiveLoan;
+import com.app.library.events.LoanEvent;
+import com.app.library.repositories.BorrowingRecordRepository;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// In-memory index of active loans per book, ordered by due date, so checkAvailability can
+// answer "when is the next copy due back" without querying borrowing_records.
+// Each book keeps its loans in a sorted set plus the cached earliest due date, which is what
+// readers see (a single map lookup). The index is rebuilt from the database once the application
+// is ready and then kept current by LoanEvents after each borrow/return commits.
+@Component
+public class AvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private record Loan(long dueEpochDay, long recordId) {}
+
+    private static final Comparator<Loan> BY_DUE_DATE =
+            Comparator.comparingLong(Loan::dueEpochDay).thenComparingLong(Loan::recordId);
+
+    // Active loans of one book; only mutated inside ConcurrentHashMap.compute for that book
+    private static final class BookLoans {
+        private final TreeSet<Loan> loans = new TreeSet<>(BY_DUE_DATE);
+        private volatile LocalDate earliest;
+
+        private void refresh() {
+            earliest = loans.isEmpty() ? null : LocalDate.ofEpochDay(loans.first().dueEpochDay());
+        }
+    }
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    private final ConcurrentHashMap<Long, BookLoans> byBook = new ConcurrentHashMap<>();
+
+    // Loans closed while a rebuild is running; the rebuild may still read them as active
+    private final Set<Long> returnedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    // True once the index has been loaded; until then callers should ask the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Earliest due date among the book's active loans, or null when it has none
+    public LocalDate earliestDueDate(Long bookId) {
+        BookLoans loans = byBook.get(bookId);
+        return loans == null ? null : loans.earliest;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoan(LoanEvent event) {
+        if (event.kind() == LoanEvent.Kind.BORROWED) {
+            add(event.bookId(), event.recordId(), event.dueDate());
+        } else {
+            if (rebuilding) {
+                returnedDuringRebuild.add(event.recordId());
+            }
+            remove(event.bookId(), event.recordId(), event.dueDate());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        rebuilding = true;
+        ready = false;
+        byBook.clear();
+        long count = 0;
+        Long after = 0L;
+        List<ActiveLoan> page;
+        do {
+            page = recordRepository.findActiveLoansAfter(after, Limit.of(REBUILD_PAGE_SIZE));
+            for (ActiveLoan loan : page) {
+                if (addUnlessReturned(loan.bookId(), loan.recordId(), loan.dueDate())) {
+                    count++;
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).recordId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        ready = true;
+        rebuilding = false;
+        returnedDuringRebuild.clear();
+        logger.info("Availability index loaded " + count + " active loans for " + byBook.size() + " books in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+
+    private void add(Long bookId, Long recordId, LocalDate dueDate) {
+        if (bookId == null || recordId == null || dueDate == null) {
+            return;
+        }
+        byBook.compute(bookId, (id, loans) -> {
+            BookLoans result = loans == null ? new BookLoans() : loans;
+            result.loans.add(new Loan(dueDate.toEpochDay(), recordId));
+            result.refresh();
+            return result;
+        });
+    }
+
+    // For the rebuild, which may read a loan that is being returned. The check runs inside the
+    // book's compute, like the return's remove: either it sees the return, or the remove comes after
+    private boolean addUnlessReturned(Long bookId, Long recordId, LocalDate dueDate) {
+        if (bookId == null || recordId == null || dueDate == null) {
+            return false;
+        }
+        boolean[] added = new boolean[1];
+        byBook.compute(bookId, (id, loans) -> {
+            if (returnedDuringRebuild.contains(recordId)) {
+                return loans;
+            }
+            BookLoans result = loans == null ? new BookLoans() : loans;
+            result.loans.add(new Loan(dueDate.toEpochDay(), recordId));
+            result.refresh();
+            added[0] = true;
+            return result;
+        });
+        return added[0];
+    }
+
+    private void remove(Long bookId, Long recordId, LocalDate dueDate) {
+        if (bookId == null || recordId == null || dueDate == null) {
+            return;
+        }
+        byBook.computeIfPresent(bookId, (id, loans) -> {
+            loans.loans.remove(new Loan(dueDate.toEpochDay(), recordId));
+            loans.refresh();
+            return loans.loans.isEmpty() ? null : loans;
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package com.app.library.services;
+
+import com.app.library.dto.CacheStatistics;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.events.MemberChangedEvent;
+import com.app.library.models.Book;
+import com.app.library.models.Member;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Read-through cache for the catalog reads of LibraryService.
+// Books and members are cached by id. Genre and author results are cached as lists of
+// book ids and resolved through the by-id cache, so a borrow or return (which only changes
+// one book's copy count) invalidates a single entry instead of every list containing the book.
+// Invalidation runs after the writing transaction commits. Each region also has a generation
+// counter, bumped before evicting: a loader that started before an invalidation does not put its
+// (possibly stale) result into the cache, and one whose put races the eviction takes it back out
+// (it re-reads the generation after the put). Values loaded inside a read-write transaction are never cached,
+// since they may be managed entities that the transaction is about to change.
+@Component
+public class CatalogCache {
+
+    public static final String BOOKS = "books";
+    public static final String MEMBERS = "members";
+    public static final String BOOKS_BY_GENRE = "booksByGenre";
+    public static final String BOOKS_BY_AUTHOR = "booksByAuthor";
+
+    // Key of the author cache; genre is null for "all genres"
+    private record AuthorGenreKey(String author, String genre) {}
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong bookGeneration = new AtomicLong();
+    private final AtomicLong listGeneration = new AtomicLong();
+    private final AtomicLong memberGeneration = new AtomicLong();
+
+    // ==================== Reads ====================
+
+    public Book getBook(Long id, Supplier<Book> loader) {
+        return readThrough(cache(BOOKS), id, bookGeneration, loader);
+    }
+
+    public Member getMember(Long id, Supplier<Member> loader) {
+        return readThrough(cache(MEMBERS), id, memberGeneration, loader);
+    }
+
+    // idLoader returns the matching book ids, bookLoader loads the books missing from the by-id cache
+    public List<Book> getBooksByGenre(String genre, Supplier<List<Long>> idLoader,
+                                      Function<Collection<Long>, List<Book>> bookLoader) {
+        List<Long> ids = readThrough(cache(BOOKS_BY_GENRE), genre, listGeneration, idLoader);
+        return resolveBooks(ids, bookLoader);
+    }
+
+    public List<Book> getBooksByAuthor(String author, String genre, Supplier<List<Long>> idLoader,
+                                       Function<Collection<Long>, List<Book>> bookLoader) {
+        List<Long> ids = readThrough(cache(BOOKS_BY_AUTHOR), new AuthorGenreKey(author, genre), listGeneration, idLoader);
+        return resolveBooks(ids, bookLoader);
+    }
+
+    // Load the given books into the by-id cache ahead of the first request (warm start); returns how many were found
+    public int preloadBooks(Collection<Long> ids, Function<Collection<Long>, List<Book>> bookLoader) {
+        return resolveBooks(List.copyOf(ids), bookLoader).size();
+    }
+
+    // Cache statistics per region
+    public Map<String, CacheStatistics> statistics() {
+        Map<String, CacheStatistics> result = new LinkedHashMap<>();
+        for (String name : List.of(BOOKS, MEMBERS, BOOKS_BY_GENRE, BOOKS_BY_AUTHOR)) {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache(name)).getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            result.put(name, new CacheStatistics(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.evictionCount(), nativeCache.estimatedSize()));
+        }
+        return result;
+    }
+
+    // ==================== Invalidation ====================
+
+    // Before CatalogVersions bumps the ETag versions for the same change
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        bookGeneration.incrementAndGet();
+        cache(BOOKS).evict(event.bookId());
+        if (event.kind() == BookChangedEvent.Kind.INVENTORY) {
+            return;
+        }
+        // List membership only changes when a book appears, disappears or moves genre/author
+        boolean moved = event.kind() != BookChangedEvent.Kind.UPDATED
+                || !sameValue(event.genre(), event.previousGenre())
+                || !sameValue(event.author(), event.previousAuthor());
+        if (moved) {
+            listGeneration.incrementAndGet();
+            evictLists(event.genre(), event.author());
+            evictLists(event.previousGenre(), event.previousAuthor());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        memberGeneration.incrementAndGet();
+        cache(MEMBERS).evict(event.memberId());
+    }
+
+    private void evictLists(String genre, String author) {
+        if (genre != null) {
+            cache(BOOKS_BY_GENRE).evict(genre);
+        }
+        if (author != null) {
+            cache(BOOKS_BY_AUTHOR).evict(new AuthorGenreKey(author, null));
+            cache(BOOKS_BY_AUTHOR).evict(new AuthorGenreKey(author, genre));
+        }
+    }
+
+    // ==================== Internals ====================
+
+    @SuppressWarnings("unchecked")
+    private <K, V> V readThrough(Cache cache, K key, AtomicLong generation, Supplier<V> loader) {
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (V) hit.get();
+        }
+        long seen = generation.get();
+        V value = loader.get();
+        if (value != null && generation.get() == seen && cacheable()) {
+            cache.put(key, value);
+            if (generation.get() != seen) {
+                cache.evict(key);
+            }
+        }
+        return value;
+    }
+
+    private List<Book> resolveBooks(List<Long> ids, Function<Collection<Long>, List<Book>> bookLoader) {
+        Cache books = cache(BOOKS);
+        Map<Long, Book> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper hit = books.get(id);
+            if (hit != null) {
+                found.put(id, (Book) hit.get());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long seen = bookGeneration.get();
+            List<Book> loaded = bookLoader.apply(missing);
+            boolean fresh = bookGeneration.get() == seen && cacheable();
+            for (Book book : loaded) {
+                found.put(book.getId(), book);
+                if (fresh) {
+                    books.put(book.getId(), book);
+                }
+            }
+            if (fresh && bookGeneration.get() != seen) {
+                loaded.forEach(book -> books.evict(book.getId()));
+            }
+        }
+        List<Book> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Book book = found.get(id);
+            if (book != null) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+
+    private static boolean cacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private static boolean sameValue(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,269 @@
+package com.app.library.services;
+
+import com.app.library.dto.BookSearchHit;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.models.Book;
+import com.app.library.repositories.BookRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// In-process inverted index over book titles and authors for search and typeahead.
+// Text is split into lower-case, accent-free tokens; each field keeps a sorted term -> book ids map,
+// so a prefix is a range scan over the terms. Every query token must match a title or author token,
+// exactly or as a prefix; results are ranked by how well they matched (title before author, exact
+// before prefix), then by shorter title. Reads are lock-free; writes (book events, rebuild) are
+// serialized. The index is loaded from the database once the application is ready (a scan of the
+// whole catalog) and then kept in sync by BookChangedEvents after each commit; until the first load
+// completes it is not ready, as its results would miss books not read yet.
+@Component
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    private static final int TITLE_EXACT = 4;
+    private static final int AUTHOR_EXACT = 3;
+    private static final int TITLE_PREFIX = 2;
+    private static final int AUTHOR_PREFIX = 1;
+
+    public static final int MAX_RESULTS = 100;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Doc(Long id, String title, String author, String genre, List<String> titleTokens, List<String> authorTokens) {}
+
+    private record Scored(Doc doc, int score) {}
+
+    // Best first: higher score, then shorter title, then lower id
+    private static final Comparator<Scored> RANKING = Comparator.comparingInt(Scored::score).reversed()
+            .thenComparingInt((Scored s) -> s.doc().title() == null ? 0 : s.doc().title().length())
+            .thenComparingLong(s -> s.doc().id());
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ConcurrentHashMap<Long, Doc> docs = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> titleTerms = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> authorTerms = new ConcurrentSkipListMap<>();
+
+    // Books changed by events while a rebuild is running; the rebuild must not overwrite them
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    // True once the catalog has been loaded; until then search results would be incomplete
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ==================== Search ====================
+
+    public List<BookSearchHit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        int size = Math.max(1, Math.min(limit, MAX_RESULTS));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        // Drive the search from the most selective token; the others only filter its candidates
+        String driver = tokens.stream().min(Comparator.comparingLong(this::estimateMatches)).get();
+
+        // Every candidate is scored as it is found and only the best size are kept (worst on top of
+        // the heap), so the ranking covers all matches at O(size) memory for the results
+        PriorityQueue<Scored> top = new PriorityQueue<>(RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        forEachCandidate(driver, id -> {
+            Doc doc = seen.add(id) ? docs.get(id) : null;
+            if (doc == null) {
+                return;
+            }
+            int score = score(doc, tokens);
+            if (score > 0) {
+                top.add(new Scored(doc, score));
+                if (top.size() > size) {
+                    top.poll();
+                }
+            }
+        });
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(s -> new BookSearchHit(s.doc().id(), s.doc().title(), s.doc().author(), s.doc().genre(), s.score()))
+                .toList();
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Upper bound of the candidates for a token, from the posting sizes of the terms it expands to
+    private long estimateMatches(String token) {
+        return postingSizes(titleTerms, token) + postingSizes(authorTerms, token);
+    }
+
+    private static long postingSizes(ConcurrentSkipListMap<String, Set<Long>> terms, String prefix) {
+        long total = 0;
+        for (Set<Long> ids : prefixTerms(terms, prefix).values()) {
+            total += ids.size();
+        }
+        return total;
+    }
+
+    // Book ids having a title or author token equal to or starting with the given token, over
+    // every such term (a book may be visited more than once)
+    private void forEachCandidate(String token, Consumer<Long> visitor) {
+        prefixTerms(titleTerms, token).values().forEach(ids -> ids.forEach(visitor));
+        prefixTerms(authorTerms, token).values().forEach(ids -> ids.forEach(visitor));
+    }
+
+    // The terms equal to or starting with prefix: a range of the sorted map, as no token contains
+    // the (non-letter) upper bound character
+    private static NavigableMap<String, Set<Long>> prefixTerms(ConcurrentSkipListMap<String, Set<Long>> terms, String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Sum of the best match of each query token, or 0 when some token does not match at all
+    private static int score(Doc doc, List<String> tokens) {
+        int total = 0;
+        for (String token : tokens) {
+            int best = Math.max(fieldScore(doc.titleTokens(), token, TITLE_EXACT, TITLE_PREFIX),
+                    fieldScore(doc.authorTokens(), token, AUTHOR_EXACT, AUTHOR_PREFIX));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int fieldScore(List<String> fieldTokens, String token, int exact, int prefix) {
+        int best = 0;
+        for (String fieldToken : fieldTokens) {
+            if (fieldToken.equals(token)) {
+                return exact;
+            }
+            if (fieldToken.startsWith(token)) {
+                best = prefix;
+            }
+        }
+        return best;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.splitAsStream(folded)
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    // ==================== Maintenance ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.kind() == BookChangedEvent.Kind.INVENTORY) {
+            return;
+        }
+        if (rebuilding) {
+            touchedDuringRebuild.add(event.bookId());
+        }
+        if (event.kind() == BookChangedEvent.Kind.DELETED) {
+            remove(event.bookId());
+        } else {
+            put(event.bookId(), event.title(), event.author(), event.genre());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        rebuilding = true;
+        Long after = 0L;
+        List<Book> page;
+        do {
+            page = bookRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(REBUILD_PAGE_SIZE));
+            for (Book book : page) {
+                putUntouched(book);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        ready = true;
+        rebuilding = false;
+        touchedDuringRebuild.clear();
+        logger.info("Search index loaded " + docs.size() + " books in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+
+    private synchronized void put(Long id, String title, String author, String genre) {
+        removeDoc(docs.get(id));
+        Doc doc = new Doc(id, title, author, genre, tokenize(title), tokenize(author));
+        docs.put(id, doc);
+        for (String token : doc.titleTokens()) {
+            titleTerms.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        for (String token : doc.authorTokens()) {
+            authorTerms.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    // Checked under the writer lock, so an event for the same book either wins here or comes after
+    private synchronized void putUntouched(Book book) {
+        if (!touchedDuringRebuild.contains(book.getId())) {
+            put(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre());
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        removeDoc(docs.remove(id));
+    }
+
+    private void removeDoc(Doc doc) {
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.titleTokens()) {
+            removePosting(titleTerms, token, doc.id());
+        }
+        for (String token : doc.authorTokens()) {
+            removePosting(authorTerms, token, doc.id());
+        }
+    }
+
+    // Only called by the (single) writer, so dropping an emptied term cannot race with an add
+    private static void removePosting(ConcurrentSkipListMap<String, Set<Long>> terms, String token, Long id) {
+        Set<Long> ids = terms.get(token);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                terms.remove(token);
+            }
+        }
+    }
+}
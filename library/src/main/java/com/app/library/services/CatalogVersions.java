@@ -0,0 +1,52 @@
+package com.app.library.services;
+
+import com.app.library.events.BookChangedEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Version counters behind the ETags of the book endpoints. Every committed book change (add,
+// update, delete, borrow, return, import) bumps the catalog version, which tags the list and
+// query responses, and the version of the book's stripe, which tags /api/books/{id}. Books share
+// a fixed number of stripes, so memory stays flat however large the catalog is; two books in one
+// stripe only cost each other an occasional full response.
+// A client's If-None-Match is answered by comparing tags, without loading anything. Tags are
+// read before the data is loaded and bumped after the catalog cache has been invalidated, so a
+// response is never tagged with a version older than its content.
+@Component
+public class CatalogVersions {
+
+    private static final int STRIPES = 1 << 16;
+
+    // Tells this process's tags apart from those handed out before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLongArray bookVersions = new AtomicLongArray(STRIPES);
+
+    // Strong ETag of any list or query over the catalog
+    public String catalogTag() {
+        return "\"c-" + epoch + "-" + catalogVersion.get() + "\"";
+    }
+
+    public String bookTag(Long bookId) {
+        return "\"b" + bookId + "-" + epoch + "-" + bookVersions.get(stripe(bookId)) + "\"";
+    }
+
+    // Runs after CatalogCache's invalidation of the same event (see its @Order)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        bookVersions.incrementAndGet(stripe(event.bookId()));
+        catalogVersion.incrementAndGet();
+    }
+
+    private static int stripe(Long bookId) {
+        return Long.hashCode(bookId * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.library.services;
+
+// The member dashboard could not be built in time (or its pool was saturated); worth retrying shortly
+public class DashboardUnavailableException extends RuntimeException {
+
+    public DashboardUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
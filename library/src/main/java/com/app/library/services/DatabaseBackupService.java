@@ -0,0 +1,169 @@
+package com.app.library.services;
+
+import com.app.library.dto.BackupInfo;
+import com.app.library.repositories.BookRepository;
+import com.app.library.repositories.BorrowingRecordRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Persistent mode (profile "persistent"): the database lives in an H2 file instead of memory, so a
+// restart opens the existing store (pages are read lazily through memory-mapped files) rather than
+// reloading the catalog. This service takes online snapshots of that file with H2's BACKUP (a
+// consistent zip copy, taken while the application keeps serving), keeps the newest few, and after
+// startup warms the catalog cache with the books of the most recent loans. DatabaseRestorer restores
+// the newest snapshot when the database file is missing.
+@Service
+@Profile("persistent")
+public class DatabaseBackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBackupService.class);
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // Books per query when warming the cache
+    private static final int WARM_CHUNK = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${library.persistence.name}")
+    private String name;
+
+    @Value("${library.persistence.backup-dir}")
+    private Path backupDir;
+
+    @Value("${library.persistence.backups-kept:24}")
+    private int backupsKept;
+
+    @Value("${library.persistence.warm-books:10000}")
+    private int warmBooks;
+
+    @Scheduled(cron = "${library.persistence.backup-cron:0 0 * * * *}")
+    public void scheduledBackup() {
+        backup();
+    }
+
+    // Take a snapshot now. It is written under a temporary name and renamed when complete, so a
+    // restore never picks up a half-written file.
+    public synchronized BackupInfo backup() {
+        long start = System.nanoTime();
+        Path target = backupDir.resolve(name + "-" + LocalDateTime.now().format(STAMP) + ".zip");
+        Path partial = backupDir.resolve(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(backupDir);
+            jdbcTemplate.execute("BACKUP TO '" + partial.toString().replace("'", "''") + "'");
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            prune();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Database backup " + target + " written in " + millis + " ms");
+            return new BackupInfo(target.toString(), Files.size(target), LocalDateTime.now(), millis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Snapshots on disk, newest first
+    public List<BackupInfo> backups() {
+        List<BackupInfo> result = new ArrayList<>();
+        for (Path file : backupFiles()) {
+            try {
+                result.add(new BackupInfo(file.toString(), Files.size(file),
+                        LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault()), null));
+            } catch (IOException e) {
+                // Pruned while listing
+            }
+        }
+        return result;
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = backupFiles();
+        for (Path old : files.subList(Math.min(backupsKept, files.size()), files.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private List<Path> backupFiles() {
+        if (!Files.isDirectory(backupDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(backupDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(name + "-")
+                            && file.getFileName().toString().endsWith(".zip"))
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== Warm start ====================
+
+    // Runs in the background, so requests are served while the cache fills
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCatalogCache() {
+        if (warmBooks > 0) {
+            taskExecutor.execute(() -> preloadRecentBooks(warmBooks));
+        }
+    }
+
+    void preloadRecentBooks(int count) {
+        long start = System.nanoTime();
+        // Recent loans repeat popular books, so read a few times more loans than books wanted
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long bookId : recordRepository.findRecentBookIds(Limit.of(count * 4))) {
+            if (ids.size() == count) {
+                break;
+            }
+            ids.add(bookId);
+        }
+        List<Long> ordered = new ArrayList<>(ids);
+        int loaded = 0;
+        for (int from = 0; from < ordered.size(); from += WARM_CHUNK) {
+            loaded += catalogCache.preloadBooks(ordered.subList(from, Math.min(from + WARM_CHUNK, ordered.size())),
+                    bookRepository::findAllById);
+        }
+        logger.info("Catalog cache warmed with " + loaded + " recently borrowed books in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,120 @@
+package com.app.library.services;
+
+import com.app.library.events.HoldEvent;
+import com.app.library.models.Hold;
+import com.app.library.repositories.HoldRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// In-memory front of the hold queues: waiting hold ids per book, oldest first, so queue
+// listings and "what is my position" polls never touch the database.
+// The holds table stays the source of truth for who gets the next copy (HoldService decides
+// under the book's row lock); this view follows it through HoldEvents after each commit and is
+// loaded from the database once the application is ready.
+@Component
+public class HoldQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldQueue.class);
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    private final ConcurrentHashMap<Long, ConcurrentLinkedDeque<Long>> waitingByBook = new ConcurrentHashMap<>();
+
+    // Holds resolved while a rebuild is running; the rebuild may still read them as waiting
+    private final Set<Long> resolvedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    // 1-based position of a waiting hold in its book's queue, 0 if it is not waiting
+    public int position(Long bookId, Long holdId) {
+        ConcurrentLinkedDeque<Long> queue = waitingByBook.get(bookId);
+        if (queue == null) {
+            return 0;
+        }
+        int position = 1;
+        for (Long id : queue) {
+            if (id.equals(holdId)) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    // Waiting hold ids of a book, oldest first
+    public List<Long> waiting(Long bookId) {
+        ConcurrentLinkedDeque<Long> queue = waitingByBook.get(bookId);
+        return queue == null ? List.of() : List.copyOf(queue);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHold(HoldEvent event) {
+        if (event.kind() == HoldEvent.Kind.PLACED) {
+            add(event.bookId(), event.holdId());
+        } else {
+            if (rebuilding) {
+                resolvedDuringRebuild.add(event.holdId());
+            }
+            remove(event.bookId(), event.holdId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding = true;
+        waitingByBook.clear();
+        List<Hold> waiting = holdRepository.findByStatusOrderByIdAsc(Hold.Status.WAITING);
+        for (Hold hold : waiting) {
+            addUnlessResolved(hold.getBookId(), hold.getId());
+        }
+        rebuilding = false;
+        resolvedDuringRebuild.clear();
+        logger.info("Hold queues loaded " + waiting.size() + " waiting holds for " + waitingByBook.size() + " books");
+    }
+
+    private void add(Long bookId, Long holdId) {
+        waitingByBook.compute(bookId, (id, queue) -> insert(queue, holdId));
+    }
+
+    // For the rebuild, which may read a hold that is being resolved. The check runs inside the
+    // book's compute, like the resolution's remove: either it sees the resolution, or the remove comes after
+    private void addUnlessResolved(Long bookId, Long holdId) {
+        waitingByBook.compute(bookId, (id, queue) -> resolvedDuringRebuild.contains(holdId) ? queue : insert(queue, holdId));
+    }
+
+    // Queues are kept in id order, which is the order holds are served in
+    private static ConcurrentLinkedDeque<Long> insert(ConcurrentLinkedDeque<Long> queue, Long holdId) {
+        ConcurrentLinkedDeque<Long> result = queue == null ? new ConcurrentLinkedDeque<>() : queue;
+        if (result.contains(holdId)) {
+            return result;
+        }
+        if (result.isEmpty() || result.peekLast() < holdId) {
+            result.addLast(holdId);
+            return result;
+        }
+        // A hold committed after a younger one: rare, so swap in a re-sorted copy of the (short) queue
+        List<Long> ordered = new ArrayList<>(result);
+        ordered.add(holdId);
+        ordered.sort(null);
+        return new ConcurrentLinkedDeque<>(ordered);
+    }
+
+    private void remove(Long bookId, Long holdId) {
+        waitingByBook.computeIfPresent(bookId, (id, queue) -> {
+            queue.remove(holdId);
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+}
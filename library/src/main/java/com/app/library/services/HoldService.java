@@ -0,0 +1,202 @@
+package com.app.library.services;
+
+import com.app.library.dto.HoldView;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.events.HoldEvent;
+import com.app.library.events.LoanEvent;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.Hold;
+import com.app.library.repositories.BookRepository;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.app.library.repositories.HoldRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Reservations for books with no copy left. A member places one hold and waits instead of
+// retrying /api/borrow; when a copy comes back, returnBook hands it straight to the oldest
+// waiting hold inside the return transaction, so the copy is never visible as available to
+// anyone else. Placing a hold and returning a copy both take the book's row lock first
+// (placeHold explicitly, returnBook through its check-in), which rules out a copy being
+// returned unseen by a hold committed at the same moment. Direct borrows respect the queue too:
+// while holds wait, a copy may only go to the member at its head (claimForBorrow), and copies
+// added to the stock are handed to the queue like returned ones (handOffAvailableCopies).
+@Service
+public class HoldService {
+
+    // Loan period for copies lent through a hold, as for /api/borrow
+    private static final int LOAN_DAYS = 14;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private HoldQueue holdQueue;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Place a hold. If a copy is free and nobody is waiting, it is lent at once and the
+    // hold comes back FULFILLED with the loan's record id; otherwise it joins the queue.
+    @Transactional
+    public HoldView placeHold(Long bookId, Long memberId) {
+        if (bookId == null || memberId == null) {
+            throw new IllegalArgumentException("bookId and memberId are required");
+        }
+        bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new IllegalArgumentException("Book with id " + bookId + " not found"));
+        if (holdRepository.existsByBookIdAndMemberIdAndStatus(bookId, memberId, Hold.Status.WAITING)) {
+            throw new IllegalStateException("Member " + memberId + " already holds book id " + bookId);
+        }
+
+        Hold hold = new Hold(bookId, memberId);
+        if (!holdRepository.existsByBookIdAndStatus(bookId, Hold.Status.WAITING) && inventoryService.tryCheckOut(bookId)) {
+            holdRepository.save(hold);
+            hold.fulfill(openLoan(bookId, memberId, LocalDate.now()).getId());
+            eventPublisher.publishEvent(BookChangedEvent.inventory(bookId));
+            eventPublisher.publishEvent(HoldEvent.of(HoldEvent.Kind.FULFILLED, hold));
+            return HoldView.of(hold, 0);
+        }
+        holdRepository.save(hold);
+        eventPublisher.publishEvent(HoldEvent.of(HoldEvent.Kind.PLACED, hold));
+        // Behind everyone already queued; the in-memory queue only learns of this hold after commit
+        return HoldView.of(hold, holdQueue.waiting(bookId).size() + 1);
+    }
+
+    // Cancel a waiting hold; false if it was already served or cancelled
+    @Transactional
+    public boolean cancelHold(Long holdId) {
+        Hold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Hold not found: " + holdId));
+        if (holdRepository.resolveWaiting(holdId, Hold.Status.CANCELLED, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(HoldEvent.of(HoldEvent.Kind.CANCELLED, hold));
+        return true;
+    }
+
+    public Optional<HoldView> getHold(Long holdId) {
+        return holdRepository.findById(holdId).map(hold -> HoldView.of(hold, holdQueue.position(hold.getBookId(), hold.getId())));
+    }
+
+    // Waiting holds of a book in the order they will be served; the queue is in that order already,
+    // so positions are numbered while walking it
+    public List<HoldView> getQueue(Long bookId) {
+        List<Long> waiting = holdQueue.waiting(bookId);
+        Map<Long, Hold> holds = new HashMap<>();
+        for (Hold hold : holdRepository.findAllById(waiting)) {
+            holds.put(hold.getId(), hold);
+        }
+        List<HoldView> queue = new ArrayList<>(waiting.size());
+        for (int i = 0; i < waiting.size(); i++) {
+            Hold hold = holds.get(waiting.get(i));
+            if (hold != null && hold.getStatus() == Hold.Status.WAITING) {
+                queue.add(HoldView.of(hold, i + 1));
+            }
+        }
+        return queue;
+    }
+
+    public List<HoldView> getMemberHolds(Long memberId) {
+        return holdRepository.findByMemberIdOrderByIdDesc(memberId).stream()
+                .map(hold -> HoldView.of(hold, holdQueue.position(hold.getBookId(), hold.getId())))
+                .toList();
+    }
+
+    // Called by returnBook after the copy was checked in (so the book row is locked): lends it to
+    // the oldest waiting hold, if any, and returns that loan. Must run in the caller's transaction.
+    @Transactional
+    public BorrowingRecord handOffReturnedCopy(Long bookId, LocalDate date) {
+        while (true) {
+            Optional<Hold> next = holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(bookId, Hold.Status.WAITING);
+            if (next.isEmpty()) {
+                return null;
+            }
+            Hold hold = next.get();
+            // Lost to a concurrent cancel: try the next one in line
+            if (holdRepository.resolveWaiting(hold.getId(), Hold.Status.FULFILLED, LocalDateTime.now()) == 0) {
+                continue;
+            }
+            if (!inventoryService.tryCheckOut(bookId)) {
+                throw new IllegalStateException("Returned copy of book id " + bookId + " could not be handed off");
+            }
+            BorrowingRecord loan = openLoan(bookId, hold.getMemberId(), date);
+            hold.fulfill(loan.getId());
+            holdRepository.save(hold);
+            eventPublisher.publishEvent(HoldEvent.of(HoldEvent.Kind.FULFILLED, hold));
+            return loan;
+        }
+    }
+
+    // Called by the borrow paths after the book row was locked (by taking the copy or explicitly).
+    // While holds wait for the book, its copies belong to the head of the queue: if that is the
+    // borrower, the hold is claimed and returned, to be completed with fulfill(hold, loan) once the
+    // loan exists; anyone else is refused. Returns null when nobody waits. Must run in the caller's transaction.
+    @Transactional
+    public Hold claimForBorrow(Long bookId, Long memberId) {
+        while (true) {
+            Optional<Hold> next = holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(bookId, Hold.Status.WAITING);
+            if (next.isEmpty()) {
+                return null;
+            }
+            Hold hold = next.get();
+            if (!hold.getMemberId().equals(memberId)) {
+                throw new IllegalStateException("Book id " + bookId + " is reserved for members waiting in its hold queue");
+            }
+            // Lost to a concurrent cancel: the member no longer holds it, look at the queue again
+            if (holdRepository.resolveWaiting(hold.getId(), Hold.Status.FULFILLED, LocalDateTime.now()) == 1) {
+                return hold;
+            }
+        }
+    }
+
+    // Complete a hold claimed by claimForBorrow with the loan that served it
+    @Transactional
+    public void fulfill(Hold hold, BorrowingRecord loan) {
+        hold.fulfill(loan.getId());
+        holdRepository.save(hold);
+        eventPublisher.publishEvent(HoldEvent.of(HoldEvent.Kind.FULFILLED, hold));
+    }
+
+    // Called after copies were added to a book's stock: lends free copies to waiting holds, oldest
+    // first, and returns how many were handed off. Takes the book's row lock, as a return does.
+    @Transactional
+    public int handOffAvailableCopies(Long bookId, LocalDate date) {
+        Optional<Book> book = bookRepository.findByIdForUpdate(bookId);
+        if (book.isEmpty()) {
+            return 0;
+        }
+        int free = book.get().getAvailableCopies();
+        int handedOff = 0;
+        while (handedOff < free && handOffReturnedCopy(bookId, date) != null) {
+            handedOff++;
+        }
+        return handedOff;
+    }
+
+    private BorrowingRecord openLoan(Long bookId, Long memberId, LocalDate date) {
+        BorrowingRecord loan = recordRepository.save(new BorrowingRecord(bookId, memberId, date, date.plusDays(LOAN_DAYS)));
+        eventPublisher.publishEvent(LoanEvent.borrowed(loan));
+        return loan;
+    }
+}
@@ -0,0 +1,313 @@
+package com.app.library.services;
+
+import com.app.library.dto.ImportChunkResult;
+import com.app.library.dto.ImportReport;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.models.Book;
+import com.app.library.models.Member;
+import com.app.library.repositories.BookRepository;
+import com.app.library.repositories.MemberRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Bulk loading of books and members from a JSON array, NDJSON or CSV body.
+// The body is parsed as a stream and written in chunks, one transaction per chunk; within a chunk
+// Hibernate sends the inserts as JDBC batches (hibernate.jdbc.batch_size). A failing chunk is rolled
+// back and reported without stopping the import; unparseable NDJSON/CSV lines are skipped and reported.
+@Service
+public class ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    // Keep the report bounded when an input is mostly garbage
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${library.import.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    // Parsed input row: either a value or the reason it could not be parsed
+    private record Row<T>(T value, String error) {}
+
+    // Import books; chunkSize <= 0 uses the configured default
+    public ImportReport importBooks(InputStream body, MediaType contentType, int chunkSize) {
+        return importRows("books", rows(body, contentType, Book.class), chunkSize, chunk -> {
+            chunk.forEach(book -> book.setId(null));
+            bookRepository.saveAll(chunk);
+            chunk.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        });
+    }
+
+    // Import members; chunkSize <= 0 uses the configured default
+    public ImportReport importMembers(InputStream body, MediaType contentType, int chunkSize) {
+        return importRows("members", rows(body, contentType, Member.class), chunkSize, chunk -> {
+            chunk.forEach(member -> member.setId(null));
+            memberRepository.saveAll(chunk);
+        });
+    }
+
+    private <T> ImportReport importRows(String entity, Iterator<Row<T>> rows, int chunkSize, Consumer<List<T>> writer) {
+        int size = chunkSize > 0 ? chunkSize : defaultChunkSize;
+        long started = System.nanoTime();
+        long imported = 0;
+        long failed = 0;
+        List<ImportChunkResult> chunks = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(size);
+
+        while (rows.hasNext()) {
+            Row<T> row = rows.next();
+            if (row.error() != null) {
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(row.error());
+                }
+                continue;
+            }
+            chunk.add(row.value());
+            if (chunk.size() == size) {
+                ImportChunkResult result = writeChunk(chunks.size() + 1, chunk, writer);
+                chunks.add(result);
+                if (result.error() == null) imported += result.rows(); else failed += result.rows();
+                chunk = new ArrayList<>(size);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ImportChunkResult result = writeChunk(chunks.size() + 1, chunk, writer);
+            chunks.add(result);
+            if (result.error() == null) imported += result.rows(); else failed += result.rows();
+        }
+
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Imported " + imported + " " + entity + " in " + millis + " ms, " + failed + " failed");
+        return new ImportReport(entity, imported, failed, millis, perSecond(imported, millis), chunks, errors);
+    }
+
+    private <T> ImportChunkResult writeChunk(int number, List<T> chunk, Consumer<List<T>> writer) {
+        long started = System.nanoTime();
+        String error = null;
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(chunk));
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            logger.warn("Import chunk " + number + " rolled back: " + error);
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        return new ImportChunkResult(number, chunk.size(), millis, perSecond(chunk.size(), millis), error);
+    }
+
+    private static double perSecond(long rows, long millis) {
+        return millis == 0 ? rows * 1000.0 : rows * 1000.0 / millis;
+    }
+
+    // ==================== Input formats ====================
+
+    private <T> Iterator<Row<T>> rows(InputStream body, MediaType contentType, Class<T> type) {
+        if (contentType != null && NDJSON.isCompatibleWith(contentType)) {
+            return ndjsonRows(body, type);
+        }
+        if (contentType != null && CSV.isCompatibleWith(contentType)) {
+            return csvRows(body, type);
+        }
+        return jsonRows(body, type);
+    }
+
+    // A JSON array (or a sequence of root-level objects) read incrementally; a syntax error ends the input
+    private <T> Iterator<Row<T>> jsonRows(InputStream body, Class<T> type) {
+        MappingIterator<T> values;
+        try {
+            values = objectMapper.readerFor(type).readValues(body);
+        } catch (IOException e) {
+            return List.of(new Row<T>(null, "Unreadable JSON body: " + e.getMessage())).iterator();
+        }
+        return new Iterator<>() {
+            private boolean broken;
+            private String pendingError;
+
+            @Override
+            public boolean hasNext() {
+                if (broken) return false;
+                if (pendingError != null) return true;
+                try {
+                    return values.hasNextValue();
+                } catch (IOException e) {
+                    pendingError = "Invalid JSON: " + e.getMessage();
+                    return true;
+                }
+            }
+
+            @Override
+            public Row<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (pendingError != null) {
+                    broken = true;
+                    return new Row<>(null, pendingError);
+                }
+                try {
+                    return new Row<>(values.nextValue(), null);
+                } catch (IOException e) {
+                    broken = true;
+                    return new Row<>(null, "Invalid JSON: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    // One JSON object per line; a bad line is reported and skipped
+    private <T> Iterator<Row<T>> ndjsonRows(InputStream body, Class<T> type) {
+        return new LineIterator<>(body) {
+            @Override
+            protected Row<T> parse(String line, long lineNumber) {
+                try {
+                    return new Row<>(objectMapper.readValue(line, type), null);
+                } catch (JsonProcessingException e) {
+                    return new Row<>(null, "Line " + lineNumber + ": " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    // A header line naming the entity properties, then one row per line; a bad line is reported and skipped
+    private <T> Iterator<Row<T>> csvRows(InputStream body, Class<T> type) {
+        return new LineIterator<>(body) {
+            private List<String> header;
+
+            @Override
+            protected Row<T> parse(String line, long lineNumber) {
+                List<String> fields = splitCsv(line);
+                if (header == null) {
+                    header = fields.stream().map(String::trim).toList();
+                    return null;
+                }
+                if (fields.size() != header.size()) {
+                    return new Row<>(null, "Line " + lineNumber + ": expected " + header.size() + " fields but found " + fields.size());
+                }
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    values.put(header.get(i), fields.get(i).isEmpty() ? null : fields.get(i));
+                }
+                try {
+                    return new Row<>(objectMapper.convertValue(values, type), null);
+                } catch (IllegalArgumentException e) {
+                    return new Row<>(null, "Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    // Splits one CSV line; fields may be double-quoted, with "" as an escaped quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Reads non-blank lines lazily; parse may return null to consume a line without producing a row
+    private abstract static class LineIterator<T> implements Iterator<Row<T>> {
+
+        private final BufferedReader reader;
+        private long lineNumber;
+        private Row<T> nextRow;
+
+        LineIterator(InputStream body) {
+            this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        }
+
+        protected abstract Row<T> parse(String line, long lineNumber);
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextRow == null) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (!line.isBlank()) {
+                        nextRow = parse(line, lineNumber);
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Row<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row<T> row = nextRow;
+            nextRow = null;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.app.library.services;
+
+import com.app.library.repositories.BookRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+// Keeps available copy counts exact under concurrent borrows and returns.
+// Every change is a single conditional UPDATE on the book row, so there is no
+// read-check-write window and the row lock is held only for the statement
+// plus the rest of the caller's (short) transaction.
+@Service
+public class InventoryService {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    // Take one copy of a book; false when the book has no copies left or does not exist
+    public boolean tryCheckOut(Long bookId) {
+        return bookRepository.decrementAvailableCopies(bookId) == 1;
+    }
+
+    // Put one copy of a book back; false when the book no longer exists
+    public boolean checkIn(Long bookId) {
+        return bookRepository.incrementAvailableCopies(bookId) == 1;
+    }
+}
@@ -1,23 +1,77 @@
 package com.app.library.services;
 
+import com.app.library.dto.BatchItemResult;
+import com.app.library.dto.BatchResult;
+import com.app.library.dto.BookSearchHit;
+import com.app.library.dto.DueLoan;
+import com.app.library.dto.LoanExportRow;
+import com.app.library.dto.LoanTotals;
+import com.app.library.dto.MemberDashboard;
+import com.app.library.dto.MemberLoan;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.events.LoanEvent;
+import com.app.library.events.MemberChangedEvent;
 import com.app.library.models.Book;
+import com.app.library.models.Hold;
 import com.app.library.models.Member;
 import com.app.library.models.BorrowingRecord;
+import com.app.library.repositories.ArchivedBorrowingRecordRepository;
 import com.app.library.repositories.BookRepository;
+import com.app.library.repositories.HoldRepository;
 import com.app.library.repositories.MemberRepository;
 import com.app.library.repositories.BorrowingRecordRepository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import io.micrometer.core.annotation.Timed;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+// Every public method is timed as library.service{class, method} (see TimedAspect / management.* properties)
 @Service
+@Timed("library.service")
 public class LibraryService {
 
+    // Upper bound for a single keyset page, whatever the client asks for
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Order of the due loan queries, whose results are merged across the hot and archive tables
+    private static final Comparator<DueLoan> DUE_ORDER = Comparator
+            .comparing(DueLoan::dueDate)
+            .thenComparing(DueLoan::recordId);
+
     @Autowired
     private BookRepository bookRepository;
 
@@ -27,6 +81,57 @@ public class LibraryService {
     @Autowired
     private BorrowingRecordRepository recordRepository;
 
+    // Loans returned long ago (see LoanArchiveService); history reads query both stores
+    @Autowired
+    private ArchivedBorrowingRecordRepository archiveRepository;
+
+    @Autowired
+    private LoanArchiveService archiveService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private CatalogSearchIndex searchIndex;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Threads and queued queries of the member dashboard pool; size threads to the read pool
+    @Value("${library.dashboard.threads:10}")
+    private int dashboardThreads;
+
+    @Value("${library.dashboard.queue-capacity:600}")
+    private int dashboardQueueCapacity;
+
+    @Value("${library.dashboard.timeout-ms:5000}")
+    private long dashboardTimeoutMs;
+
+    private ExecutorService dashboardExecutor;
+
+    @PostConstruct
+    void startDashboardExecutor() {
+        dashboardExecutor = new ThreadPoolExecutor(dashboardThreads, dashboardThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dashboardQueueCapacity), Thread.ofPlatform().name("dashboard-", 1).daemon().factory());
+    }
+
+    @PreDestroy
+    void stopDashboardExecutor() {
+        dashboardExecutor.shutdownNow();
+    }
+
     // ==================== Book Methods ====================
 
     // Get all books
@@ -34,26 +139,68 @@ public class LibraryService {
         return bookRepository.findAll();
     }
 
-    // Get a book by ID
+    // Get one keyset page of books ordered by id, starting strictly after the given id,
+    // with optional author and/or genre filters
+    public List<Book> getBooksPage(String author, String genre, Long after, int limit) {
+        Long cursor = after == null ? 0L : after;
+        Limit pageLimit = Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (author != null && genre != null) {
+            return bookRepository.findByAuthorAndGenreAndIdGreaterThanOrderByIdAsc(author, genre, cursor, pageLimit);
+        } else if (author != null) {
+            return bookRepository.findByAuthorAndIdGreaterThanOrderByIdAsc(author, cursor, pageLimit);
+        } else if (genre != null) {
+            return bookRepository.findByGenreAndIdGreaterThanOrderByIdAsc(genre, cursor, pageLimit);
+        }
+        return bookRepository.findByIdGreaterThanOrderByIdAsc(cursor, pageLimit);
+    }
+
+    // Walk every matching book page by page, so the caller never holds more than one page in memory
+    public void forEachBookPage(String author, String genre, int pageSize, Consumer<List<Book>> consumer) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        Long after = 0L;
+        List<Book> page;
+        do {
+            page = getBooksPage(author, genre, after, size);
+            if (!page.isEmpty()) {
+                consumer.accept(page);
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == size);
+    }
+
+    // Get a book by ID (cached)
     public Book getBookById(Long id) {
-        return bookRepository.findById(id).orElse(null);
+        return catalogCache.getBook(id, () -> bookRepository.findById(id).orElse(null));
     }
 
     // Add a new book
+    @Transactional
     public void addBook(Book book) {
         // Ensure we persist a new entity regardless of client-provided id
         book.setId(null);
         bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(book));
     }
 
     // Update a book
+    @Transactional
     public void updateBook(Book updatedBook) {
+        // Capture the event before saving: merging may copy the new state onto a managed "previous"
+        BookChangedEvent event = BookChangedEvent.updated(getBookById(updatedBook.getId()), updatedBook);
         bookRepository.save(updatedBook);
+        eventPublisher.publishEvent(event);
+        // Copies added to the stock go to waiting holds first
+        if (updatedBook.getAvailableCopies() > 0 && holdService.handOffAvailableCopies(updatedBook.getId(), LocalDate.now()) > 0) {
+            eventPublisher.publishEvent(BookChangedEvent.inventory(updatedBook.getId()));
+        }
     }
 
     // Delete a book by ID
+    @Transactional
     public void deleteBook(Long id) {
+        BookChangedEvent event = BookChangedEvent.deleted(id, getBookById(id));
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(event);
     }
 
     // ==================== Member Methods ====================
@@ -63,9 +210,9 @@ public class LibraryService {
         return memberRepository.findAll();
     }
 
-    // Get a member by ID
+    // Get a member by ID (cached)
     public Member getMemberById(Long id) {
-        return memberRepository.findById(id).orElse(null);
+        return catalogCache.getMember(id, () -> memberRepository.findById(id).orElse(null));
     }
 
     // Add a new member
@@ -76,24 +223,144 @@ public class LibraryService {
     }
 
     // Update a member
+    @Transactional
     public void updateMember(Member updatedMember) {
         memberRepository.save(updatedMember);
+        eventPublisher.publishEvent(new MemberChangedEvent(updatedMember.getId()));
     }
 
     // Delete a member by ID
+    @Transactional
     public void deleteMember(Long id) {
         memberRepository.deleteById(id);
+        eventPublisher.publishEvent(new MemberChangedEvent(id));
+    }
+
+    // Member page in a fixed number of queries: the member and the loan queries (history and totals
+    // on both the hot and the archive table) are independent, so they run concurrently, each on its
+    // own connection. They run on a pool of their own, so long streaming responses and background
+    // jobs on the shared task executor cannot starve dashboards. The queries have
+    // library.dashboard.timeout-ms in all; a dashboard that times out, or finds the pool's queue
+    // full, throws DashboardUnavailableException and cancels whatever has not run yet.
+    // Deliberately not @Transactional, so the request thread holds no connection while it waits.
+    public MemberDashboard getMemberDashboard(Long memberId, int historyLimit) {
+        List<CompletableFuture<?>> queries = new ArrayList<>();
+        try {
+            CompletableFuture<Member> member = dashboardQuery(queries, () -> getMemberById(memberId));
+            CompletableFuture<List<MemberLoan>> active = dashboardQuery(queries, () -> recordRepository.findActiveLoansByMember(memberId));
+            CompletableFuture<List<MemberLoan>> history =
+                    dashboardQuery(queries, () -> recordRepository.findLoanHistoryByMember(memberId, Limit.of(historyLimit)));
+            CompletableFuture<LoanTotals> totals = dashboardQuery(queries, () -> recordRepository.findLoanTotalsByMember(memberId));
+            CompletableFuture<List<MemberLoan>> archivedHistory =
+                    dashboardQuery(queries, () -> archiveRepository.findLoanHistoryByMember(memberId, Limit.of(historyLimit)));
+            CompletableFuture<LoanTotals> archivedTotals = dashboardQuery(queries, () -> archiveRepository.findLoanTotalsByMember(memberId));
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dashboardTimeoutMs);
+            Member found = member.get(dashboardTimeoutMs, TimeUnit.MILLISECONDS);
+            if (found == null) {
+                queries.forEach(query -> query.cancel(false));
+                return null;
+            }
+            CompletableFuture.allOf(queries.toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return dashboard(found, historyLimit, active.join(), history.join(), archivedHistory.join(),
+                    totals.join(), archivedTotals.join());
+        } catch (RejectedExecutionException e) {
+            queries.forEach(query -> query.cancel(false));
+            throw new DashboardUnavailableException("Dashboard queue is full", e);
+        } catch (TimeoutException e) {
+            queries.forEach(query -> query.cancel(false));
+            throw new DashboardUnavailableException("Dashboard timed out after " + dashboardTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            queries.forEach(query -> query.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new DashboardUnavailableException("Interrupted while waiting for the dashboard", e);
+        } catch (ExecutionException e) {
+            queries.forEach(query -> query.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> CompletableFuture<T> dashboardQuery(List<CompletableFuture<?>> queries, Supplier<T> query) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(query, dashboardExecutor);
+        queries.add(future);
+        return future;
+    }
+
+    private static MemberDashboard dashboard(Member found, int historyLimit, List<MemberLoan> activeLoans,
+                                             List<MemberLoan> history, List<MemberLoan> archivedHistory,
+                                             LoanTotals hot, LoanTotals archived) {
+        LocalDate today = LocalDate.now();
+        LocalDate nextDueDate = activeLoans.isEmpty() ? null : activeLoans.get(0).dueDate();
+        long overdue = activeLoans.stream()
+                .filter(loan -> loan.dueDate() != null && loan.dueDate().isBefore(today))
+                .count();
+        // Archived loans were returned before any returned loan still in the hot table, so they only
+        // fill up what is left of the page
+        List<MemberLoan> recent = Stream.concat(history.stream(), archivedHistory.stream())
+                .limit(historyLimit)
+                .toList();
+        return new MemberDashboard(found.getId(), found.getName(), found.getEmail(), found.getEndDate(),
+                activeLoans, nextDueDate, overdue, recent, hot.loans() + archived.loans(),
+                orZero(hot.fines()).add(orZero(archived.fines())));
     }
 
     // ==================== BorrowingRecord Methods ====================
 
-    // Get all borrowing records
+    // Get all borrowing records, hot and archived, in id order
     public Collection<BorrowingRecord> getAllBorrowingRecords() {
-        return recordRepository.findAll();
+        List<BorrowingRecord> records = new ArrayList<>(recordRepository.findAll());
+        archiveRepository.findAll().forEach(archived -> records.add(archived.toRecord()));
+        records.sort(Comparator.comparing(BorrowingRecord::getId));
+        return records;
     }
 
-    // Borrow a book (create a new borrowing record)
+    // Feed every borrowing record borrowed between from and to (inclusive, either may be null),
+    // optionally of one member, to the consumer in id order; returns how many there were.
+    // A null bound is no bound: records without a borrow date are exported when neither is given.
+    // Rows come from a database cursor as projections, so heap use does not grow with the row count;
+    // the hot and the archive table are read by two cursors at once and merged on id.
+    @Transactional(readOnly = true)
+    public long exportBorrowingRecords(Long memberId, LocalDate from, LocalDate to, Consumer<LoanExportRow> consumer) {
+        long count = 0;
+        try (Stream<LoanExportRow> hot = memberId == null
+                ? recordRepository.streamForExport(from, to)
+                : recordRepository.streamForExportByMember(memberId, from, to);
+             Stream<LoanExportRow> archived = memberId == null
+                ? archiveRepository.streamForExport(from, to)
+                : archiveRepository.streamForExportByMember(memberId, from, to)) {
+            Iterator<LoanExportRow> hotRows = hot.iterator();
+            Iterator<LoanExportRow> archivedRows = archived.iterator();
+            LoanExportRow nextHot = hotRows.hasNext() ? hotRows.next() : null;
+            LoanExportRow nextArchived = archivedRows.hasNext() ? archivedRows.next() : null;
+            while (nextHot != null || nextArchived != null) {
+                if (nextArchived == null || (nextHot != null && nextHot.id() < nextArchived.id())) {
+                    consumer.accept(nextHot);
+                    nextHot = hotRows.hasNext() ? hotRows.next() : null;
+                } else {
+                    consumer.accept(nextArchived);
+                    nextArchived = archivedRows.hasNext() ? archivedRows.next() : null;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Borrow a book (create a new borrowing record).
+    // The copy is taken with an atomic conditional decrement before the record is written,
+    // so concurrent borrows can never oversell a title.
+    @Transactional
     public void borrowBook(BorrowingRecord record) {
+        // Always a new, open loan whatever the caller filled in
+        record.setId(null);
+        record.setReturnDate(null);
+        record.setOverdue(false);
+        record.setFine(null);
+        record.setFineAssessedOn(null);
         if (record.getBorrowDate() == null) {
             record.setBorrowDate(LocalDate.now());
         }
@@ -102,61 +369,262 @@ public class LibraryService {
         }
 
         Long bId = record.getBookId();
-        Book book = bookRepository.findById(bId).orElseThrow(() -> new IllegalArgumentException("Book with id " + bId + " not found"));
-        if (book.getAvailableCopies() <= 0) {
+        if (!inventoryService.tryCheckOut(bId)) {
+            if (!bookRepository.existsById(bId)) {
+                throw new IllegalArgumentException("Book with id " + bId + " not found");
+            }
             throw new IllegalStateException("No available copies for book id " + bId);
         }
 
+        // The copy row is locked now; if members are waiting for this book, only the head of the queue may take it
+        Hold hold = holdService.claimForBorrow(bId, record.getMemberId());
+
         BorrowingRecord saved = recordRepository.save(record);
         record.setId(saved.getId());
-
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookRepository.save(book);
+        if (hold != null) {
+            holdService.fulfill(hold, saved);
+        }
+        eventPublisher.publishEvent(BookChangedEvent.inventory(bId));
+        eventPublisher.publishEvent(LoanEvent.borrowed(saved));
     }
 
-    // Return a book (update the borrowing record with the return date)
+    // Return a book (update the borrowing record with the return date).
+    // Closing the loan is guarded on returnDate being null, so a copy is put back exactly once.
+    // Archived loans were returned long ago, so they are reported as such.
+    // If members hold the book, the copy goes straight to the oldest hold in the same transaction.
+    @Transactional
     public void returnBook(Long recordId, LocalDate returnDate) {
-        BorrowingRecord record = recordRepository.findById(recordId).orElseThrow(() -> new IllegalArgumentException("Borrowing record not found: " + recordId));
-        record.setReturnDate(returnDate);
-        recordRepository.save(record);
+        Optional<BorrowingRecord> found = recordRepository.findById(recordId);
+        if (found.isEmpty() && archiveRepository.existsById(recordId)) {
+            throw new IllegalStateException("Borrowing record already returned: " + recordId);
+        }
+        BorrowingRecord record = found.orElseThrow(() -> new IllegalArgumentException("Borrowing record not found: " + recordId));
+        if (recordRepository.markReturned(recordId, returnDate) == 0) {
+            throw new IllegalStateException("Borrowing record already returned: " + recordId);
+        }
+        inventoryService.checkIn(record.getBookId());
+        holdService.handOffReturnedCopy(record.getBookId(), returnDate);
+        eventPublisher.publishEvent(BookChangedEvent.inventory(record.getBookId()));
+        eventPublisher.publishEvent(LoanEvent.returned(record, returnDate));
+    }
+
+    // Borrow several books for one member in one transaction, all or nothing (a repeated book id
+    // borrows several copies). The books are row-locked in id order with one query and validated
+    // under the lock; copies are then taken with one guarded update per distinct copy count
+    // (usually a single statement) and the loans inserted as JDBC batches. Books with waiting holds
+    // are RESERVED unless the member heads their queue, for one copy. If any item fails,
+    // nothing is written and the result lists why, item by item.
+    @Transactional
+    public BatchResult borrowBooks(Long memberId, List<Long> bookIds, LocalDate borrowDate) {
+        Map<Long, Integer> wanted = new TreeMap<>();
+        for (Long bookId : bookIds) {
+            wanted.merge(bookId, 1, Integer::sum);
+        }
+        Map<Long, Integer> available = new HashMap<>();
+        for (Book book : bookRepository.findAllByIdForUpdate(wanted.keySet())) {
+            available.put(book.getId(), book.getAvailableCopies());
+        }
+        // Heads of the hold queues of the requested books that have one (the rows are locked)
+        Map<Long, Long> queueHeads = new HashMap<>();
+        for (Long bookId : holdRepository.findBookIdsWithWaitingHolds(available.keySet())) {
+            holdRepository.findFirstByBookIdAndStatusOrderByIdAsc(bookId, Hold.Status.WAITING)
+                    .ifPresent(head -> queueHeads.put(bookId, head.getMemberId()));
+        }
+        Set<Long> claimed = new HashSet<>();
+
+        List<BatchItemResult> items = new ArrayList<>(bookIds.size());
+        boolean valid = true;
+        for (Long bookId : bookIds) {
+            if (!available.containsKey(bookId)) {
+                items.add(BatchItemResult.of(bookId, BatchItemResult.Status.NOT_FOUND));
+                valid = false;
+            } else if (queueHeads.containsKey(bookId)
+                    && (!queueHeads.get(bookId).equals(memberId) || !claimed.add(bookId))) {
+                items.add(BatchItemResult.of(bookId, BatchItemResult.Status.RESERVED));
+                valid = false;
+            } else if (available.merge(bookId, -1, Integer::sum) < 0) {
+                items.add(BatchItemResult.of(bookId, BatchItemResult.Status.UNAVAILABLE));
+                valid = false;
+            } else {
+                items.add(BatchItemResult.of(bookId, BatchItemResult.Status.SKIPPED));
+            }
+        }
+        if (!valid) {
+            return new BatchResult(false, items);
+        }
 
-        Book book = bookRepository.findById(record.getBookId()).orElse(null);
-        if (book != null) {
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
-            bookRepository.save(book);
+        for (Map.Entry<Integer, List<Long>> group : groupByCount(wanted).entrySet()) {
+            // Cannot fall short while the rows are locked; throwing rolls the whole batch back
+            if (bookRepository.decrementAvailableCopies(group.getValue(), group.getKey()) != group.getValue().size()) {
+                throw new IllegalStateException("Inventory changed while the batch held its locks");
+            }
         }
+        List<BorrowingRecord> records = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            records.add(new BorrowingRecord(bookId, memberId, borrowDate, borrowDate.plusDays(14)));
+        }
+        recordRepository.saveAll(records);
+        for (BorrowingRecord record : records) {
+            Hold hold = claimed.remove(record.getBookId()) ? holdService.claimForBorrow(record.getBookId(), memberId) : null;
+            if (hold != null) {
+                holdService.fulfill(hold, record);
+            }
+        }
+
+        for (Long bookId : wanted.keySet()) {
+            eventPublisher.publishEvent(BookChangedEvent.inventory(bookId));
+        }
+        items.clear();
+        for (BorrowingRecord record : records) {
+            eventPublisher.publishEvent(LoanEvent.borrowed(record));
+            items.add(new BatchItemResult(record.getBookId(), BatchItemResult.Status.BORROWED, record.getId(), record.getDueDate()));
+        }
+        return new BatchResult(true, items);
     }
 
-    // Get books by genre
+    // Return several loans in one transaction, all or nothing. The records are row-locked in id
+    // order and validated, closed with one guarded update, and their copies put back with one
+    // update per distinct copy count. Only books that someone holds go through the per-copy
+    // hand-off to the hold queue.
+    @Transactional
+    public BatchResult returnBooks(List<Long> recordIds, LocalDate returnDate) {
+        Set<Long> ids = new LinkedHashSet<>(recordIds);
+        Map<Long, BorrowingRecord> records = new HashMap<>();
+        for (BorrowingRecord record : recordRepository.findAllByIdForUpdate(ids)) {
+            records.put(record.getId(), record);
+        }
+
+        Set<Long> archived = records.size() == ids.size() ? Set.of() : Set.copyOf(archiveRepository.findIdsByIdIn(ids));
+
+        List<BatchItemResult> items = new ArrayList<>(ids.size());
+        boolean valid = true;
+        for (Long recordId : ids) {
+            BorrowingRecord record = records.get(recordId);
+            if (record == null && archived.contains(recordId)) {
+                items.add(BatchItemResult.of(recordId, BatchItemResult.Status.ALREADY_RETURNED));
+                valid = false;
+            } else if (record == null) {
+                items.add(BatchItemResult.of(recordId, BatchItemResult.Status.NOT_FOUND));
+                valid = false;
+            } else if (record.getReturnDate() != null) {
+                items.add(BatchItemResult.of(recordId, BatchItemResult.Status.ALREADY_RETURNED));
+                valid = false;
+            } else {
+                items.add(BatchItemResult.of(recordId, BatchItemResult.Status.SKIPPED));
+            }
+        }
+        if (!valid) {
+            return new BatchResult(false, items);
+        }
+
+        if (recordRepository.markReturned(ids, returnDate) != ids.size()) {
+            throw new IllegalStateException("Borrowing records changed while the batch held their locks");
+        }
+        Map<Long, Integer> copies = new TreeMap<>();
+        for (Long recordId : ids) {
+            copies.merge(records.get(recordId).getBookId(), 1, Integer::sum);
+        }
+        for (Map.Entry<Integer, List<Long>> group : groupByCount(copies).entrySet()) {
+            bookRepository.incrementAvailableCopies(group.getValue(), group.getKey());
+        }
+        for (Long bookId : holdRepository.findBookIdsWithWaitingHolds(copies.keySet())) {
+            int handedOff = 0;
+            while (handedOff < copies.get(bookId) && holdService.handOffReturnedCopy(bookId, returnDate) != null) {
+                handedOff++;
+            }
+        }
+
+        for (Long bookId : copies.keySet()) {
+            eventPublisher.publishEvent(BookChangedEvent.inventory(bookId));
+        }
+        items.clear();
+        for (Long recordId : ids) {
+            BorrowingRecord record = records.get(recordId);
+            eventPublisher.publishEvent(LoanEvent.returned(record, returnDate));
+            items.add(new BatchItemResult(recordId, BatchItemResult.Status.RETURNED, recordId, record.getDueDate()));
+        }
+        return new BatchResult(true, items);
+    }
+
+    // Two lists, each sorted by order, as one sorted list
+    private static <T> List<T> merge(List<T> first, List<T> second, Comparator<T> order) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        List<T> merged = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            if (j == second.size() || (i < first.size() && order.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    // Book ids grouped by how many copies each needs, so one set-based update covers each group
+    private static Map<Integer, List<Long>> groupByCount(Map<Long, Integer> copiesByBook) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        copiesByBook.forEach((bookId, count) -> groups.computeIfAbsent(count, c -> new ArrayList<>()).add(bookId));
+        return groups;
+    }
+
+    // Get books by genre (cached)
     public Collection<Book> getBooksByGenre(String genre) {
         if (genre == null) return getAllBooks();
-        return bookRepository.findByGenre(genre);
+        return catalogCache.getBooksByGenre(genre,
+                () -> bookRepository.findIdsByGenre(genre),
+                bookRepository::findAllById);
     }
 
-    // Get books by author and optional genre
+    // Get books by author and optional genre (cached)
     public Collection<Book> getBooksByAuthorAndGenre(String author, String genre) {
         if (author == null) return getAllBooks();
-        if (genre == null) {
-            return bookRepository.findByAuthor(author);
-        } else {
-            return bookRepository.findByAuthorAndGenre(author, genre);
-        }
+        return catalogCache.getBooksByAuthor(author, genre,
+                () -> genre == null
+                        ? bookRepository.findIdsByAuthor(author)
+                        : bookRepository.findIdsByAuthorAndGenre(author, genre),
+                bookRepository::findAllById);
     }
 
-    // Get books that are due on a specific date
+    // Search titles and authors; every word of the query must match a word or word prefix.
+    // null while the search index is still loading after startup
+    public List<BookSearchHit> searchBooks(String query, int limit) {
+        if (!searchIndex.isReady()) return null;
+        return searchIndex.search(query, limit);
+    }
+
+    // Get books that are due on a specific date (one book per borrowing record)
     public Collection<Book> getBooksDueOnDate(LocalDate dueDate) {
-        List<BorrowingRecord> records = recordRepository.findByDueDate(dueDate);
-        return records.stream()
-                .map(r -> bookRepository.findById(r.getBookId()).orElse(null))
-                .filter(b -> b != null)
+        return getLoansDueBetween(dueDate, dueDate).stream()
+                .map(DueLoan::book)
                 .toList();
     }
 
-    // Check earliest availability date for a book
+    // Get loans due between two dates (inclusive) with their books, in a single query; the archive
+    // is only queried as well for ranges reaching back to the due dates of archived loans
+    public List<DueLoan> getLoansDueBetween(LocalDate from, LocalDate to) {
+        List<DueLoan> loans = recordRepository.findLoansDueBetween(from, to);
+        if (!archiveService.mayHoldLoansDueFrom(from)) {
+            return loans;
+        }
+        return merge(loans, archiveRepository.findLoansDueBetween(from, to), DUE_ORDER);
+    }
+
+    // Check earliest availability date for a book.
+    // Served from the cached book and the in-memory availability index; the database is only
+    // queried for active loans while the index is still loading.
     public LocalDate checkAvailability(Long bookId) {
-        Book book = bookRepository.findById(bookId).orElse(null);
+        Book book = getBookById(bookId);
         if (book == null) return null;
         if (book.getAvailableCopies() > 0) return LocalDate.now();
+        if (availabilityIndex.isReady()) return availabilityIndex.earliestDueDate(bookId);
 
         List<BorrowingRecord> active = recordRepository.findByBookIdAndReturnDateIsNull(bookId);
         return active.stream()
@@ -0,0 +1,181 @@
+package com.app.library.services;
+
+import com.app.library.dto.ArchiveStats;
+import com.app.library.repositories.ArchivedBorrowingRecordRepository;
+import com.app.library.repositories.BorrowingRecordRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Nightly job that moves loans returned more than library.archive.min-age-days ago from
+// borrowing_records to borrowing_records_archive, so the hot table, its indexes and the
+// second-level cache only carry recent and active loans however many years of history pile up.
+// Each batch (oldest returns first) is copied and deleted in one transaction, guarded on the
+// return date, so a loan is always in exactly one store and an interrupted run just continues the
+// next night. Returned loans never change again, so moving them races with nothing. History
+// reads (exports, member history, loans due in a range) query both stores, see LibraryService.
+@Service
+public class LoanArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanArchiveService.class);
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private ArchivedBorrowingRecordRepository archiveRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${library.archive.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${library.archive.batch-size:5000}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Latest due date of any archived loan (null while the archive is empty); raised before a batch
+    // commits, so due-date queries past it can safely skip the archive table
+    private volatile LocalDate archivedDueUntil;
+
+    // Progress of the current (or last) run, read by stats()
+    private volatile LocalDate cutoff;
+    private volatile LocalDateTime startedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile long moved;
+    private volatile long batches;
+
+    private Counter movedCounter;
+
+    @PostConstruct
+    void init() {
+        movedCounter = Counter.builder("library.archive.records")
+                .description("Returned loans moved to the archive").register(meterRegistry);
+        archivedDueUntil = archiveRepository.findMaxDueDate();
+    }
+
+    // True if the archive may hold loans due on or after the date
+    public boolean mayHoldLoansDueFrom(LocalDate date) {
+        LocalDate until = archivedDueUntil;
+        return until != null && !until.isBefore(date);
+    }
+
+    // ==================== Triggers ====================
+
+    @Scheduled(cron = "${library.archive.cron:0 45 2 * * *}")
+    public void scheduledArchive() {
+        archive(LocalDate.now());
+    }
+
+    // Run in the background; false if a run is already in progress
+    public boolean startAsync(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    run(today);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    // Run on the calling thread; returns the resulting stats, or null if a run is already in progress
+    public ArchiveStats archive(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            run(today);
+        } finally {
+            running.set(false);
+        }
+        return stats();
+    }
+
+    public ArchiveStats stats() {
+        long end = running.get() ? System.nanoTime() : finishedNanos;
+        long millis = startedAt == null ? 0 : (end - startedNanos) / 1_000_000;
+        return new ArchiveStats(running.get(), minAgeDays, cutoff, startedAt, millis, moved, batches,
+                recordRepository.count(), archiveRepository.count());
+    }
+
+    // ==================== Archive ====================
+
+    private void run(LocalDate today) {
+        LocalDate before = today.minusDays(minAgeDays);
+        cutoff = before;
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        moved = 0;
+        batches = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = recordRepository.findIdsReturnedBefore(before, Limit.of(batchSize));
+                if (!ids.isEmpty()) {
+                    moveBatch(ids, before, today);
+                }
+            } while (ids.size() == batchSize);
+            logger.info("Archived " + moved + " loans returned before " + before + " in " + batches + " batches, "
+                    + (System.nanoTime() - startedNanos) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            logger.error("Loan archiving stopped after " + moved + " loans", e);
+        } finally {
+            finishedNanos = System.nanoTime();
+        }
+    }
+
+    private void moveBatch(List<Long> ids, LocalDate before, LocalDate today) {
+        Integer count = transactionTemplate.execute(status -> {
+            int copied = archiveRepository.copyReturned(ids, before, today);
+            LocalDate due = archiveRepository.findMaxDueDate();
+            if (due != null && (archivedDueUntil == null || due.isAfter(archivedDueUntil))) {
+                archivedDueUntil = due;
+            }
+            int deleted = recordRepository.deleteReturned(ids, before);
+            if (copied != deleted) {
+                throw new IllegalStateException("Archived " + copied + " loans but removed " + deleted);
+            }
+            return deleted;
+        });
+        moved += count;
+        batches++;
+        movedCounter.increment(count);
+    }
+}
@@ -0,0 +1,262 @@
+package com.app.library.services;
+
+import com.app.library.dto.ActiveLoan;
+import com.app.library.dto.OverdueScanStats;
+import com.app.library.models.JobCheckpoint;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.app.library.repositories.JobCheckpointRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Daily job that flags open loans past their due date and assesses their fine.
+// Overdue loans are read in keyset chunks (ordered by id) and each chunk is updated in its own
+// transaction on a small worker pool, with one set-based update per distinct due date. At most
+// `parallelism` chunks are in flight, so memory stays bounded however large the table is.
+// After each chunk, in order, the checkpoint in job_checkpoints records the last id processed;
+// a run interrupted by a restart resumes from there the same day. Updates are idempotent, so a
+// chunk that completed after the last checkpoint may safely be processed again.
+@Service
+public class OverdueScanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueScanService.class);
+
+    public static final String JOB_NAME = "overdue-scan";
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${library.overdue.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${library.overdue.parallelism:4}")
+    private int parallelism;
+
+    @Value("${library.overdue.daily-fine:0.25}")
+    private BigDecimal dailyFine;
+
+    @Value("${library.overdue.max-fine:20.00}")
+    private BigDecimal maxFine;
+
+    private record ChunkResult(long lastId, int scanned, int flagged) {}
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Progress of the current (or last) run, read by stats()
+    private volatile JobCheckpoint progress;
+    private volatile long chunks;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+
+    private Counter scannedCounter;
+    private Counter flaggedCounter;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    void init() {
+        scannedCounter = Counter.builder("library.overdue.records").tag("outcome", "scanned")
+                .description("Overdue loans read by the overdue scan").register(meterRegistry);
+        flaggedCounter = Counter.builder("library.overdue.records").tag("outcome", "flagged")
+                .description("Loans flagged with a fine by the overdue scan").register(meterRegistry);
+        chunkTimer = Timer.builder("library.overdue.chunk")
+                .description("Time to flag one chunk of overdue loans").register(meterRegistry);
+    }
+
+    // ==================== Triggers ====================
+
+    @Scheduled(cron = "${library.overdue.cron:0 15 2 * * *}")
+    public void scheduledScan() {
+        scan(LocalDate.now());
+    }
+
+    // Finish a run that a shutdown interrupted today
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedScan() {
+        LocalDate today = LocalDate.now();
+        checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> today.equals(checkpoint.getRunDate()) && !checkpoint.isCompleted())
+                .ifPresent(checkpoint -> startAsync(today));
+    }
+
+    // Run in the background; false if a scan is already running
+    public boolean startAsync(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    run(today);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    // Run on the calling thread; returns the resulting stats, or null if a scan is already running
+    public OverdueScanStats scan(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            run(today);
+        } finally {
+            running.set(false);
+        }
+        return stats();
+    }
+
+    public OverdueScanStats stats() {
+        JobCheckpoint checkpoint = progress;
+        if (checkpoint == null) {
+            checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        }
+        if (checkpoint == null) {
+            return new OverdueScanStats(running.get(), null, false, 0, 0, 0, 0, null, 0, 0);
+        }
+        long end = running.get() ? System.nanoTime() : finishedNanos;
+        long millis = startedAt == null ? 0 : (end - startedNanos) / 1_000_000;
+        double perSecond = millis == 0 ? 0 : checkpoint.getScanned() * 1000.0 / millis;
+        return new OverdueScanStats(running.get(), checkpoint.getRunDate(), checkpoint.isCompleted(),
+                checkpoint.getLastId(), checkpoint.getScanned(), checkpoint.getFlagged(), chunks,
+                startedAt, millis, perSecond);
+    }
+
+    // ==================== Scan ====================
+
+    private void run(LocalDate today) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .filter(existing -> today.equals(existing.getRunDate()))
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME, today));
+        if (checkpoint.isCompleted()) {
+            logger.info("Overdue scan for " + today + " already completed");
+            return;
+        }
+        progress = checkpoint;
+        chunks = 0;
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        logger.info("Overdue scan for " + today + " starting after id " + checkpoint.getLastId());
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("overdue-scan-", 1).daemon().factory());
+        Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+        try {
+            long after = checkpoint.getLastId();
+            List<ActiveLoan> page;
+            do {
+                page = recordRepository.findOverdueLoansAfter(after, today, Limit.of(chunkSize));
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).recordId();
+                    List<ActiveLoan> chunk = page;
+                    inFlight.add(workers.submit(() -> processChunk(chunk, today)));
+                }
+                // Checkpoint completed chunks in order; wait for the oldest one when the pool is saturated
+                while (!inFlight.isEmpty() && (inFlight.size() >= parallelism || inFlight.peek().isDone())) {
+                    advance(checkpoint, inFlight.poll().get());
+                }
+            } while (page.size() == chunkSize);
+            while (!inFlight.isEmpty()) {
+                advance(checkpoint, inFlight.poll().get());
+            }
+            checkpoint.setCompleted(true);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            logger.info("Overdue scan for " + today + " completed: " + checkpoint.getScanned() + " loans, "
+                    + checkpoint.getFlagged() + " flagged in " + (System.nanoTime() - startedNanos) / 1_000_000 + " ms");
+        } catch (ExecutionException e) {
+            logger.error("Overdue scan for " + today + " failed after id " + checkpoint.getLastId(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finishedNanos = System.nanoTime();
+            workers.shutdownNow();
+        }
+    }
+
+    private ChunkResult processChunk(List<ActiveLoan> chunk, LocalDate today) {
+        return chunkTimer.record(() -> {
+            Map<LocalDate, List<Long>> byDueDate = new LinkedHashMap<>();
+            for (ActiveLoan loan : chunk) {
+                byDueDate.computeIfAbsent(loan.dueDate(), d -> new ArrayList<>()).add(loan.recordId());
+            }
+            Integer flagged = transactionTemplate.execute(status -> {
+                int updated = 0;
+                for (Map.Entry<LocalDate, List<Long>> group : byDueDate.entrySet()) {
+                    updated += recordRepository.markOverdue(group.getValue(), fine(group.getKey(), today), today);
+                }
+                return updated;
+            });
+            scannedCounter.increment(chunk.size());
+            flaggedCounter.increment(flagged);
+            return new ChunkResult(chunk.get(chunk.size() - 1).recordId(), chunk.size(), flagged);
+        });
+    }
+
+    private void advance(JobCheckpoint checkpoint, ChunkResult result) {
+        checkpoint.setLastId(result.lastId());
+        checkpoint.setScanned(checkpoint.getScanned() + result.scanned());
+        checkpoint.setFlagged(checkpoint.getFlagged() + result.flagged());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        chunks++;
+    }
+
+    // Daily fine for every day past the due date, capped
+    BigDecimal fine(LocalDate dueDate, LocalDate today) {
+        long days = ChronoUnit.DAYS.between(dueDate, today);
+        return dailyFine.multiply(BigDecimal.valueOf(days)).min(maxFine).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,11 @@
+-- Loan changes not yet applied to the circulation counters. AnalyticsService writes a row in the
+-- transaction of each borrow and return and deletes it in the flush that applies it, so a change
+-- is applied exactly once even if the application stops in between.
+-- borrow_count = return_count = 0: the book's genre or author changed, its counter row follows.
+create table circulation_outbox (
+    id bigint generated by default as identity primary key,
+    book_id bigint,
+    circulation_date date,
+    borrow_count int not null,
+    return_count int not null
+);
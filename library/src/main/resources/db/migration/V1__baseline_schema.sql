@@ -0,0 +1,28 @@
+-- Baseline schema, equivalent to what Hibernate generated from the entities with ddl-auto=update
+
+create table books (
+    id bigint generated by default as identity primary key,
+    title varchar(255),
+    author varchar(255),
+    publication_year integer not null,
+    genre varchar(255),
+    available_copies integer not null
+);
+
+create table members (
+    id bigint generated by default as identity primary key,
+    name varchar(255),
+    email varchar(255),
+    phone_number varchar(255),
+    start_date date,
+    end_date date
+);
+
+create table borrowing_records (
+    id bigint generated by default as identity primary key,
+    book_id bigint,
+    member_id bigint,
+    borrow_date date,
+    return_date date,
+    due_date date
+);
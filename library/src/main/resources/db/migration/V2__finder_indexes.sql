@@ -0,0 +1,19 @@
+-- Secondary indexes, one per repository finder path.
+-- Trailing id columns keep the keyset pages (ORDER BY id after a cursor) on the index.
+
+-- BookRepository.findByGenre / findByGenreAndIdGreaterThanOrderByIdAsc
+create index idx_books_genre_id on books (genre, id);
+
+-- BookRepository.findByAuthor / findByAuthorAndIdGreaterThanOrderByIdAsc
+create index idx_books_author_id on books (author, id);
+
+-- BookRepository.findByAuthorAndGenre / findByAuthorAndGenreAndIdGreaterThanOrderByIdAsc
+create index idx_books_author_genre_id on books (author, genre, id);
+
+-- BorrowingRecordRepository.findByDueDate / findLoansDueBetween (book_id covers the join column)
+create index idx_records_due_date_book on borrowing_records (due_date, book_id);
+
+-- BorrowingRecordRepository.findByBookIdAndReturnDateIsNull: active loans per book.
+-- H2 has no partial indexes, so return_date is the second key (active loans are the NULL prefix)
+-- and due_date is carried along so the earliest due date is read from the index alone.
+create index idx_records_active_by_book on borrowing_records (book_id, return_date, due_date);
@@ -0,0 +1,7 @@
+-- Pooled id sequences (allocation size 50, see the @SequenceGenerator on each entity).
+-- Hibernate cannot batch inserts into IDENTITY columns, so ids now come from these sequences;
+-- the identity columns stay in place but are always given an explicit id.
+
+create sequence books_seq start with 1 increment by 50;
+create sequence members_seq start with 1 increment by 50;
+create sequence borrowing_records_seq start with 1 increment by 50;
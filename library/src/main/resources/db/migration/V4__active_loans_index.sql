@@ -0,0 +1,3 @@
+-- Keyset scans over all active loans (return_date is null, ordered by id), used to rebuild the
+-- in-memory availability index at startup
+create index idx_records_active_id on borrowing_records (return_date, id);
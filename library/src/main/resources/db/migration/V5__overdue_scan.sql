@@ -0,0 +1,15 @@
+-- Overdue flag and fine maintained by the overdue-scan job
+alter table borrowing_records add column overdue boolean default false not null;
+alter table borrowing_records add column fine decimal(10, 2);
+alter table borrowing_records add column fine_assessed_on date;
+
+-- Progress of long-running jobs, so a restarted job resumes after the last committed id
+create table job_checkpoints (
+    job_name varchar(100) primary key,
+    run_date date not null,
+    last_id bigint not null,
+    scanned bigint not null,
+    flagged bigint not null,
+    completed boolean not null,
+    updated_at timestamp not null
+);
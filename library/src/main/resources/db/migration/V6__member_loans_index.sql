@@ -0,0 +1,2 @@
+-- Member-scoped loan finders (dashboard): active loans by due date and history by return date
+create index idx_records_member on borrowing_records (member_id, return_date, due_date);
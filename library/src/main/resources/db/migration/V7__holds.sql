@@ -0,0 +1,16 @@
+-- Reservation queue: one row per hold, served in id order per book
+create table holds (
+    id bigint primary key,
+    book_id bigint not null,
+    member_id bigint not null,
+    status varchar(20) not null,
+    created_at timestamp not null,
+    resolved_at timestamp,
+    record_id bigint
+);
+
+create sequence holds_seq start with 1 increment by 50;
+
+-- Next waiting hold of a book (FIFO by id), and a member's holds
+create index idx_holds_book_status_id on holds (book_id, status, id);
+create index idx_holds_member_id on holds (member_id, id);
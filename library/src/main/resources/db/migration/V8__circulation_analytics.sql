@@ -0,0 +1,52 @@
+-- Materialized circulation counters, maintained incrementally by AnalyticsService as loans commit
+
+-- Per book; genre and author are the book's current ones, for top-N per genre / author
+create table book_circulation (
+    book_id bigint primary key,
+    genre varchar(255),
+    author varchar(255),
+    borrow_count bigint not null,
+    return_count bigint not null
+);
+
+create index idx_book_circulation_borrows on book_circulation (borrow_count);
+create index idx_book_circulation_genre on book_circulation (genre, borrow_count);
+create index idx_book_circulation_author on book_circulation (author, borrow_count);
+
+-- Per genre and per author (kind GENRE / AUTHOR), counted under the book's genre/author at the time
+create table category_circulation (
+    kind varchar(10) not null,
+    name varchar(255) not null,
+    borrow_count bigint not null,
+    return_count bigint not null,
+    primary key (kind, name)
+);
+
+create index idx_category_circulation_kind on category_circulation (kind, borrow_count);
+
+-- Per day: borrows by borrow date, returns by return date
+create table daily_circulation (
+    circulation_date date primary key,
+    borrow_count bigint not null,
+    return_count bigint not null
+);
+
+-- Backfill from the existing history once; from here on only the changes are applied
+insert into book_circulation (book_id, genre, author, borrow_count, return_count)
+select r.book_id, b.genre, b.author, count(*), count(r.return_date)
+from borrowing_records r left join books b on b.id = r.book_id
+where r.book_id is not null
+group by r.book_id, b.genre, b.author;
+
+insert into category_circulation (kind, name, borrow_count, return_count)
+select 'GENRE', genre, sum(borrow_count), sum(return_count) from book_circulation where genre is not null group by genre;
+
+insert into category_circulation (kind, name, borrow_count, return_count)
+select 'AUTHOR', author, sum(borrow_count), sum(return_count) from book_circulation where author is not null group by author;
+
+insert into daily_circulation (circulation_date, borrow_count, return_count)
+select d, sum(b), sum(r) from (
+    select borrow_date as d, 1 as b, 0 as r from borrowing_records where borrow_date is not null
+    union all
+    select return_date, 0, 1 from borrowing_records where return_date is not null
+) group by d;
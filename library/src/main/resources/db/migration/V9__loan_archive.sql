@@ -0,0 +1,19 @@
+-- Cold store for returned loans (see LoanArchiveService). Loans returned more than
+-- library.archive.min-age-days ago move here from borrowing_records in background batches, keeping
+-- their ids, so the hot table and its indexes only cover recent and active loans.
+create table borrowing_records_archive (
+    id bigint primary key,
+    book_id bigint,
+    member_id bigint,
+    borrow_date date,
+    return_date date not null,
+    due_date date,
+    overdue boolean not null,
+    fine decimal(10, 2),
+    fine_assessed_on date,
+    archived_on date not null
+);
+
+-- History reads that span both stores: loans due in a range (with their books) and member history
+create index idx_archive_due_date_book on borrowing_records_archive (due_date, book_id);
+create index idx_archive_member on borrowing_records_archive (member_id, return_date);
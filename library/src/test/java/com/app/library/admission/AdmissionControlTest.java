@@ -0,0 +1,162 @@
+package com.app.library.admission;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.services.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admissiondb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "library.admission.initial-limit=3",
+        "library.admission.total-limit=4",
+        "library.admission.per-member-limit=1",
+        "library.admission.retry-after-seconds=2"})
+public class AdmissionControlTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(250);
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Test
+    public void shedsRequestsBeyondTheLimitsWithMembersWorkedOutOnTheServer() throws Exception {
+        Book book = new Book("Admitted", "Author", 2024, "Fiction", 5);
+        libraryService.addBook(book);
+        BorrowingRecord loanOf7 = new BorrowingRecord(book.getId(), 7L, null, null);
+        BorrowingRecord loanOf8 = new BorrowingRecord(book.getId(), 8L, null, null);
+        BorrowingRecord loanOf9 = new BorrowingRecord(book.getId(), 9L, null, null);
+        BorrowingRecord loanOf11 = new BorrowingRecord(book.getId(), 11L, null, null);
+        for (BorrowingRecord loan : List.of(loanOf7, loanOf8, loanOf9, loanOf11)) {
+            libraryService.borrowBook(loan);
+        }
+        List<AdmissionControl.Admission> admitted = new ArrayList<>();
+
+        // The member comes from the body, whatever a header claims; the controller still gets the body
+        MockHttpServletRequest borrow = borrow(7L);
+        borrow.addHeader("X-Member-Id", "8");
+        AdmissionControl.Admission first = admissionControl.admit(borrow, new MockHttpServletResponse());
+        admitted.add(first);
+        assertEquals("{\"bookId\":1,\"memberId\":7}", new String(first.request().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        // Member 7 already has a write in flight, whether it borrows or returns
+        assertRefused(429, borrow(7L));
+        assertRefused(429, request("PUT", "/api/return/" + loanOf7.getId()));
+        admitted.add(admissionControl.admit(request("PUT", "/api/return/" + loanOf8.getId()), new MockHttpServletResponse()));
+
+        // Requests naming no known member share one cap per client address
+        admitted.add(admissionControl.admit(request("PUT", "/api/return/999999"), new MockHttpServletResponse()));
+        assertRefused(429, request("PUT", "/api/return/999998"));
+
+        // Four writes in flight fill the total limit, whatever the endpoint
+        admitted.add(admissionControl.admit(request("PUT", "/api/return/" + loanOf9.getId()), new MockHttpServletResponse()));
+        assertRefused(503, borrow(10L));
+        // With room in the total, the return endpoint is still at its own limit of three
+        admissionControl.release(admitted.remove(0));
+        assertRefused(503, request("PUT", "/api/return/" + loanOf11.getId()));
+        assertNotNull(admissionControl.admit(borrow(10L), new MockHttpServletResponse()).endpoint());
+
+        // Other endpoints are never refused
+        AdmissionControl.Admission read = admissionControl.admit(request("GET", "/api/books"), new MockHttpServletResponse());
+        assertNull(read.endpoint());
+
+        admitted.forEach(admissionControl::release);
+        assertNotNull(admissionControl.admit(request("PUT", "/api/return/" + loanOf7.getId()), new MockHttpServletResponse()));
+    }
+
+    @Test
+    public void refusesOversizedBodiesAndCoversContextPaths() throws Exception {
+        AtomicInteger totalInFlight = (AtomicInteger) ReflectionTestUtils.getField(admissionControl, "totalInFlight");
+        int before = totalInFlight.get();
+
+        MockHttpServletRequest oversized = borrow(20L);
+        oversized.setContent(("{\"memberId\":20,\"padding\":\"" + "x".repeat(20_000) + "\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(admissionControl.admit(oversized, response));
+        assertEquals(413, response.getStatus());
+        assertEquals(before, totalInFlight.get());
+
+        // Under a context path the same endpoints are limited
+        MockHttpServletRequest nested = borrow(20L);
+        nested.setContextPath("/library");
+        nested.setRequestURI("/library/api/borrow");
+        assertFalse(admissionControl.shouldNotFilter(nested));
+        AdmissionControl.Admission admission = admissionControl.admit(nested, new MockHttpServletResponse());
+        assertNotNull(admission.endpoint());
+        admissionControl.release(admission);
+        assertEquals(before, totalInFlight.get());
+    }
+
+    private void assertRefused(int status, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(admissionControl.admit(request, response));
+        assertEquals(status, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+    }
+
+    private static MockHttpServletRequest borrow(long memberId) {
+        MockHttpServletRequest request = request("POST", "/api/borrow");
+        request.setContentType("application/json");
+        request.setContent(("{\"bookId\":1,\"memberId\":" + memberId + "}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    @Test
+    public void limitFollowsLatency() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 20, TARGET, 0.5);
+        long now = System.nanoTime();
+
+        // Fast requests with the limit in use raise it by about one per limit's worth of requests
+        for (int i = 0; i < 10; i++) {
+            limit.adjust(TARGET / 10, 10, now);
+        }
+        assertEquals(10, limit.limit());
+        limit.adjust(TARGET / 10, 10, now);
+        assertEquals(11, limit.limit());
+        // ... but not while it is mostly idle
+        for (int i = 0; i < 100; i++) {
+            limit.adjust(TARGET / 10, 1, now);
+        }
+        assertEquals(11, limit.limit());
+
+        // A slow completion halves it, once per target interval
+        limit.adjust(TARGET * 2, 11, now + TARGET);
+        assertEquals(5, limit.limit());
+        limit.adjust(TARGET * 2, 5, now + TARGET + 1);
+        assertEquals(5, limit.limit());
+        limit.adjust(TARGET * 2, 5, now + TARGET * 2);
+        assertEquals(2, limit.limit());
+        limit.adjust(TARGET * 2, 2, now + TARGET * 3);
+        assertEquals(2, limit.limit());
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.inFlight());
+    }
+}
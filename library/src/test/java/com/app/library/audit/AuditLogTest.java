@@ -0,0 +1,119 @@
+package com.app.library.audit;
+
+import com.app.library.models.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auditdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "library.audit.file=target/audit-test/library-audit.jsonl",
+        "library.audit.idle-wait-ms=10",
+        "library.audit.read-sample-rate=1"})
+@AutoConfigureMockMvc
+public class AuditLogTest {
+
+    private static final Path AUDIT_FILE = Path.of("target/audit-test/library-audit.jsonl");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void writesChangesAndSampledReadsToTheAuditFile() throws Exception {
+        String bookJson = objectMapper.writeValueAsString(new Book("Audited", "Author", 2020, "Fiction", 1));
+        String response = mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(bookJson))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Book created = objectMapper.readValue(response, Book.class);
+        mockMvc.perform(get("/api/books/" + created.getId())).andExpect(status().isOk());
+
+        String create = "\"action\":\"CREATE\",\"entity\":\"book\",\"entityId\":" + created.getId();
+        String read = "\"action\":\"READ\",\"entity\":\"book\",\"entityId\":" + created.getId();
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String> lines = List.of();
+        while (System.currentTimeMillis() < deadline) {
+            lines = Files.exists(AUDIT_FILE) ? Files.readAllLines(AUDIT_FILE) : List.of();
+            if (lines.stream().anyMatch(l -> l.contains(create)) && lines.stream().anyMatch(l -> l.contains(read))) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Audit events not written, file has: " + lines);
+    }
+
+    @Test
+    public void ringBufferKeepsEveryEventOfConcurrentProducersInOrderPerProducer() throws Exception {
+        AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(new long[] {producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        long[] next = new long[producers];
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (received < producers * perProducer && System.currentTimeMillis() < deadline) {
+            buffer.drainTo(batch, 256);
+            for (long[] event : batch) {
+                assertEquals(next[(int) event[0]]++, event[1]);
+            }
+            received += batch.size();
+            batch.clear();
+        }
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, received);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void offerFailsWhenTheRingIsFull() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(99));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertTrue(buffer.offer(4));
+        buffer.drainTo(drained, 10);
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+    }
+}
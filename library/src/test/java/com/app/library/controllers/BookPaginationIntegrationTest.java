@@ -0,0 +1,81 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.services.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:paginationdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class BookPaginationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    private Long firstId;
+
+    @BeforeEach
+    public void seedBooks() {
+        libraryService.getAllBooks().forEach(b -> libraryService.deleteBook(b.getId()));
+        for (int i = 1; i <= 5; i++) {
+            Book book = new Book("Title " + i, i % 2 == 0 ? "Even" : "Odd", 2000 + i, "Fiction", 1);
+            libraryService.addBook(book);
+            if (i == 1) {
+                firstId = book.getId();
+            }
+        }
+    }
+
+    @Test
+    public void pagesFollowTheCursor() throws Exception {
+        mockMvc.perform(get("/api/books").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(firstId))
+                .andExpect(header().string(LibraryController.NEXT_CURSOR_HEADER, String.valueOf(firstId + 1)));
+
+        mockMvc.perform(get("/api/books").param("limit", "2").param("after", String.valueOf(firstId + 3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(LibraryController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void filteredPagesUseTheSameCursor() throws Exception {
+        mockMvc.perform(get("/api/books/author/Odd").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(LibraryController.NEXT_CURSOR_HEADER, String.valueOf(firstId + 2)));
+
+        mockMvc.perform(get("/api/books/genre").param("genre", "Fiction").param("after", String.valueOf(firstId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)));
+    }
+
+    @Test
+    public void streamReturnsEveryBook() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/books/stream").param("pageSize", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[4].title").value("Title 5"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.app.library.services.LibraryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:borrowrequestdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class BorrowRequestIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Fines, the overdue flag, the return date and the id are the server's to set
+    @Test
+    public void postedLoanStateIsIgnored() throws Exception {
+        Book book = new Book("Posted", "Author", 2024, "Fiction", 2);
+        libraryService.addBook(book);
+        BorrowingRecord existing = new BorrowingRecord(book.getId(), 1L, null, null);
+        libraryService.borrowBook(existing);
+
+        String body = "{\"id\":" + existing.getId() + ",\"bookId\":" + book.getId() + ",\"memberId\":2,"
+                + "\"returnDate\":\"2020-01-01\",\"overdue\":true,\"fine\":999.99,\"fineAssessedOn\":\"2020-01-01\"}";
+        String response = mockMvc.perform(post("/api/borrow").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fine").isEmpty())
+                .andExpect(jsonPath("$.overdue").value(false))
+                .andReturn().getResponse().getContentAsString();
+
+        Long id = objectMapper.readTree(response).get("id").asLong();
+        assertNotEquals(existing.getId(), id);
+        BorrowingRecord created = recordRepository.findById(id).get();
+        assertEquals(2L, created.getMemberId());
+        assertNull(created.getFine());
+        assertFalse(created.isOverdue());
+        assertNull(created.getFineAssessedOn());
+        assertNull(created.getReturnDate());
+        assertEquals(1L, recordRepository.findById(existing.getId()).get().getMemberId());
+        assertEquals(0, libraryService.getBookById(book.getId()).getAvailableCopies());
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.app.library.services.LibraryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exportdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class BorrowingRecordExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Test
+    public void exportsFilteredRecordsAsGzipNdjson() throws Exception {
+        Book book = new Book("Exported", "Author", 2024, "Fiction", 10);
+        libraryService.addBook(book);
+        LocalDate day = LocalDate.of(2031, 3, 1);
+        for (int i = 0; i < 6; i++) {
+            libraryService.borrowBook(new BorrowingRecord(book.getId(), 500L + i % 2, day.plusDays(i), null));
+        }
+
+        MvcResult started = mockMvc.perform(get("/api/borrowing-records/export")
+                        .param("memberId", "501").param("from", "01/03/2031").param("to", "31/03/2031")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<JsonNode> rows = ndjson(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes());
+        assertEquals(3, rows.size());
+        for (JsonNode row : rows) {
+            assertEquals(501L, row.get("memberId").asLong());
+            assertEquals(book.getId(), row.get("bookId").asLong());
+        }
+        assertEquals("2031-03-02", rows.get(0).get("borrowDate").asText());
+
+        MvcResult plain = mockMvc.perform(get("/api/borrowing-records/export").param("from", "04/03/2031"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] plainBody = mockMvc.perform(asyncDispatch(plain))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(3, ndjson(plainBody).size());
+
+        // A record without a borrow date is only left out by a date filter
+        recordRepository.save(new BorrowingRecord(book.getId(), 502L, null, null));
+        assertEquals(1, export(get("/api/borrowing-records/export").param("memberId", "502")).size());
+        assertEquals(0, export(get("/api/borrowing-records/export").param("memberId", "502").param("to", "31/12/2099")).size());
+    }
+
+    private List<JsonNode> export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return ndjson(mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+    }
+
+    private List<JsonNode> ndjson(byte[] bytes) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
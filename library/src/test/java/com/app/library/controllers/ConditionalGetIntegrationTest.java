@@ -0,0 +1,74 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.services.LibraryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etagdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void bookTagChangesOnBorrowAndMatchingTagGets304() throws Exception {
+        Book book = new Book("Tagged", "Author", 2024, "Fiction", 2);
+        libraryService.addBook(book);
+
+        String etag = mockMvc.perform(get("/api/books/" + book.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/books/" + book.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 1L, LocalDate.now(), null));
+        String changed = mockMvc.perform(get("/api/books/" + book.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    public void listNotModifiedIsAnsweredWithoutQueries() throws Exception {
+        libraryService.addBook(new Book("Listed", "Author", 2024, "Poetry", 1));
+        String etag = mockMvc.perform(get("/api/books").param("genre", "Poetry"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        DistributionSummary statements = meterRegistry.find("library.request.sql.statements").tag("uri", "/api/books").summary();
+        double before = statements.totalAmount();
+        mockMvc.perform(get("/api/books").param("genre", "Poetry").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(before, statements.totalAmount());
+
+        libraryService.addBook(new Book("Listed Too", "Author", 2024, "Poetry", 1));
+        mockMvc.perform(get("/api/books").param("genre", "Poetry").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
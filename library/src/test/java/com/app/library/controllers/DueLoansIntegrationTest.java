@@ -0,0 +1,55 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.services.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:duedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class DueLoansIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Test
+    public void dueDateQueriesJoinRecordsWithBooks() throws Exception {
+        Book first = new Book("First", "Author", 2020, "Fiction", 5);
+        Book second = new Book("Second", "Author", 2021, "History", 5);
+        libraryService.addBook(first);
+        libraryService.addBook(second);
+        LocalDate monday = LocalDate.of(2030, 3, 4);
+        libraryService.borrowBook(new BorrowingRecord(first.getId(), 1L, monday.minusDays(14), monday));
+        libraryService.borrowBook(new BorrowingRecord(second.getId(), 2L, monday.minusDays(12), monday.plusDays(2)));
+        libraryService.borrowBook(new BorrowingRecord(first.getId(), 3L, monday.minusDays(5), monday.plusDays(9)));
+
+        mockMvc.perform(get("/api/books/dueondate").param("dueDate", "04/03/2030"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("First"));
+
+        mockMvc.perform(get("/api/books/due").param("from", "04/03/2030").param("to", "10/03/2030"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].memberId").value(1))
+                .andExpect(jsonPath("$[1].book.title").value("Second"))
+                .andExpect(jsonPath("$[1].dueDate").value("2030-03-06"));
+
+        mockMvc.perform(get("/api/books/due").param("from", "10/03/2030").param("to", "04/03/2030"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,70 @@
+package com.app.library.controllers;
+
+import com.app.library.services.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class ImportControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Test
+    public void importsJsonArrayInChunks() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 7; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"title\":\"Json ").append(i).append("\",\"author\":\"Bulk\",\"publicationYear\":2001,\"genre\":\"Json\",\"availableCopies\":2}");
+        }
+        json.append(']');
+
+        mockMvc.perform(post("/api/import/books").param("chunkSize", "3")
+                        .contentType(MediaType.APPLICATION_JSON).content(json.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(7))
+                .andExpect(jsonPath("$.chunks.length()").value(3))
+                .andExpect(jsonPath("$.chunks[2].rows").value(1));
+        assertEquals(7, libraryService.getBooksByGenre("Json").size());
+    }
+
+    @Test
+    public void importsNdjsonAndSkipsBadLines() throws Exception {
+        String ndjson = "{\"title\":\"Nd 1\",\"author\":\"Bulk\",\"genre\":\"Ndjson\",\"availableCopies\":1}\n"
+                + "{not json}\n"
+                + "{\"title\":\"Nd 2\",\"author\":\"Bulk\",\"genre\":\"Ndjson\",\"availableCopies\":1}\n";
+
+        mockMvc.perform(post("/api/import/books").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0]").value(org.hamcrest.Matchers.startsWith("Line 2")));
+    }
+
+    @Test
+    public void importsCsvMembers() throws Exception {
+        String csv = "name,email,phoneNumber,startDate,endDate\n"
+                + "Ann,ann@example.com,555-0100,2024-01-01,2025-01-01\n"
+                + "\"Smith, Bob\",bob@example.com,,2024-02-01,\n";
+
+        mockMvc.perform(post("/api/import/members").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entity").value("members"))
+                .andExpect(jsonPath("$.imported").value(2));
+        assertEquals(2, libraryService.getAllMembers().stream()
+                .filter(m -> m.getName().equals("Ann") || m.getName().equals("Smith, Bob")).count());
+    }
+}
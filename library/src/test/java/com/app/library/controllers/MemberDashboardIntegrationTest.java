@@ -0,0 +1,104 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.Member;
+import com.app.library.services.LibraryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:dashboarddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+public class MemberDashboardIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Test
+    public void returnsActiveLoansHistoryAndTotalsForOneMember() throws Exception {
+        Member member = new Member("Reader", "reader@example.com", "555-0100", LocalDate.of(2024, 1, 1), LocalDate.of(2030, 1, 1));
+        libraryService.addMember(member);
+        Book first = new Book("First", "Author A", 2020, "Fiction", 5);
+        Book second = new Book("Second", "Author B", 2021, "Fiction", 5);
+        libraryService.addBook(first);
+        libraryService.addBook(second);
+        LocalDate today = LocalDate.now();
+
+        BorrowingRecord late = new BorrowingRecord(first.getId(), member.getId(), today.minusDays(20), today.minusDays(6));
+        BorrowingRecord current = new BorrowingRecord(second.getId(), member.getId(), today, today.plusDays(14));
+        BorrowingRecord returned = new BorrowingRecord(second.getId(), member.getId(), today.minusDays(40), today.minusDays(26));
+        BorrowingRecord otherMember = new BorrowingRecord(first.getId(), member.getId() + 1000, today, today.plusDays(3));
+        libraryService.borrowBook(current);
+        libraryService.borrowBook(late);
+        libraryService.borrowBook(returned);
+        libraryService.borrowBook(otherMember);
+        libraryService.returnBook(returned.getId(), today.minusDays(27));
+
+        mockMvc.perform(get("/api/members/" + member.getId() + "/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Reader"))
+                .andExpect(jsonPath("$.activeLoans", hasSize(2)))
+                .andExpect(jsonPath("$.activeLoans[0].recordId").value(late.getId()))
+                .andExpect(jsonPath("$.activeLoans[0].title").value("First"))
+                .andExpect(jsonPath("$.nextDueDate").value(today.minusDays(6).toString()))
+                .andExpect(jsonPath("$.overdueLoans").value(1))
+                .andExpect(jsonPath("$.history", hasSize(1)))
+                .andExpect(jsonPath("$.history[0].title").value("Second"))
+                .andExpect(jsonPath("$.totalLoans").value(3));
+    }
+
+    @Test
+    public void unknownMemberIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/members/987654/dashboard"))
+                .andExpect(status().isNotFound());
+    }
+
+    // With every dashboard thread stuck, the request gives up after the timeout instead of hanging
+    @Test
+    public void busyDashboardPoolAnswersServiceUnavailable() throws Exception {
+        Member member = new Member("Waiting", "waiting@example.com", "555-0101", LocalDate.of(2024, 1, 1), LocalDate.of(2030, 1, 1));
+        libraryService.addMember(member);
+        LibraryService target = AopTestUtils.getTargetObject(libraryService);
+        ExecutorService pool = (ExecutorService) ReflectionTestUtils.getField(target, "dashboardExecutor");
+        int threads = (int) ReflectionTestUtils.getField(target, "dashboardThreads");
+        CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(target, "dashboardTimeoutMs", 200L);
+        try {
+            for (int i = 0; i < threads; i++) {
+                pool.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            mockMvc.perform(get("/api/members/" + member.getId() + "/dashboard"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            release.countDown();
+            ReflectionTestUtils.setField(target, "dashboardTimeoutMs", 5000L);
+        }
+        mockMvc.perform(get("/api/members/" + member.getId() + "/dashboard"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,70 @@
+package com.app.library.controllers;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.services.LibraryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metricsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void countsStatementsAndRowsPerEndpoint() throws Exception {
+        Book book = new Book("Metered", "Author", 2020, "Fiction", 3);
+        libraryService.addBook(book);
+        LocalDate due = LocalDate.of(2031, 5, 1);
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 1L, due.minusDays(14), due));
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 2L, due.minusDays(14), due));
+
+        mockMvc.perform(get("/api/books/dueondate").param("dueDate", "01/05/2031"))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("library.request.sql.statements")
+                .tag("uri", "/api/books/dueondate").summary();
+        DistributionSummary rows = meterRegistry.find("library.request.rows.fetched")
+                .tag("uri", "/api/books/dueondate").summary();
+        assertNotNull(statements);
+        assertEquals(1.0, statements.max());
+        assertEquals(2.0, rows.max());
+    }
+
+    @Test
+    public void exposesPrometheusScrape() throws Exception {
+        mockMvc.perform(get("/api/books").param("limit", "1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("library_service_seconds")))
+                .andExpect(content().string(containsString("http_server_requests_seconds")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")));
+        assertTrue(meterRegistry.find("library.service").tag("method", "getBooksPage").timer().count() > 0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.library.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Checks the H2 query plan of the SQL each repository finder actually issues picks a secondary index:
+// the statement is captured from Hibernate as the finder runs, then explained with the same arguments
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indexdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.app.library.repositories.FinderIndexUsageTest$CapturingInspector"})
+public class FinderIndexUsageTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    // Statements Hibernate prepared, in order
+    public static class CapturingInspector implements StatementInspector {
+
+        private static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (statements) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Test
+    public void findByGenreUsesIndex() {
+        assertPlanUses("IDX_BOOKS_GENRE_ID", () -> bookRepository.findByGenre("Genre 1"), "Genre 1");
+        assertPlanUses("IDX_BOOKS_GENRE_ID", () -> bookRepository.findIdsByGenre("Genre 2"), "Genre 2");
+        assertPlanUses("IDX_BOOKS_GENRE_ID",
+                () -> bookRepository.findByGenreAndIdGreaterThanOrderByIdAsc("Genre 3", 0L, Limit.of(100)), "Genre 3", 0L, 100);
+    }
+
+    @Test
+    public void findByAuthorUsesIndex() {
+        assertPlanUses("IDX_BOOKS_AUTHOR", () -> bookRepository.findByAuthor("Author 1"), "Author 1");
+        assertPlanUses("IDX_BOOKS_AUTHOR", () -> bookRepository.findIdsByAuthor("Author 2"), "Author 2");
+        assertPlanUses("IDX_BOOKS_AUTHOR_ID",
+                () -> bookRepository.findByAuthorAndIdGreaterThanOrderByIdAsc("Author 3", 0L, Limit.of(100)), "Author 3", 0L, 100);
+    }
+
+    @Test
+    public void findByAuthorAndGenreUsesIndex() {
+        assertPlanUses("IDX_BOOKS_AUTHOR_GENRE_ID",
+                () -> bookRepository.findByAuthorAndGenre("Author 4", "Genre 4"), "Author 4", "Genre 4");
+        assertPlanUses("IDX_BOOKS_AUTHOR_GENRE_ID",
+                () -> bookRepository.findIdsByAuthorAndGenre("Author 5", "Genre 5"), "Author 5", "Genre 5");
+    }
+
+    @Test
+    public void findByDueDateUsesIndex() {
+        assertPlanUses("IDX_RECORDS_DUE_DATE_BOOK", () -> recordRepository.findByDueDate(DAY), DAY);
+        assertPlanUses("IDX_RECORDS_DUE_DATE_BOOK",
+                () -> recordRepository.findLoansDueBetween(DAY, DAY.plusDays(6)), DAY, DAY.plusDays(6));
+    }
+
+    @Test
+    public void findActiveLoansByBookUsesIndex() {
+        assertPlanUses("IDX_RECORDS_ACTIVE_BY_BOOK", () -> recordRepository.findByBookIdAndReturnDateIsNull(1L), 1L);
+    }
+
+    @Test
+    public void memberLoanFindersUseIndex() {
+        assertPlanUses("IDX_RECORDS_MEMBER", () -> recordRepository.findActiveLoansByMember(1L), 1L);
+        assertPlanUses("IDX_RECORDS_MEMBER",
+                () -> recordRepository.findLoanHistoryByMember(1L, Limit.of(20)), 1L, 20);
+    }
+
+    // Runs the finder, then explains the one select it issued with the given arguments (in parameter order)
+    private void assertPlanUses(String indexPrefix, Runnable finder, Object... args) {
+        String sql;
+        synchronized (CapturingInspector.statements) {
+            CapturingInspector.statements.clear();
+            finder.run();
+            List<String> selects = CapturingInspector.statements.stream()
+                    .filter(statement -> statement.stripLeading().toLowerCase().startsWith("select"))
+                    .toList();
+            assertEquals(1, selects.size(), "Expected one select, got " + selects);
+            sql = selects.get(0);
+        }
+        assertEquals(args.length, sql.chars().filter(c -> c == '?').count(), "Arguments for " + sql);
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, args);
+        assertTrue(plan.toUpperCase().contains("PUBLIC." + indexPrefix), "Expected " + indexPrefix + " in plan:\n" + plan);
+    }
+}
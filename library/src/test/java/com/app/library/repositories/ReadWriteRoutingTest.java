@@ -0,0 +1,52 @@
+package com.app.library.repositories;
+
+import com.app.library.models.Book;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class ReadWriteRoutingTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryPool;
+
+    @Autowired
+    @Qualifier("readDataSource")
+    private HikariDataSource readPool;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void readOnlyTransactionsUseTheReadPool() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            bookRepository.count();
+            assertTrue(readPool.getHikariPoolMXBean().getActiveConnections() >= 1);
+        });
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Book book = readWrite.execute(status -> {
+            Book saved = bookRepository.saveAndFlush(new Book("Routed", "Author", 2024, "Fiction", 1));
+            assertTrue(primaryPool.getHikariPoolMXBean().getActiveConnections() >= 1);
+            return saved;
+        });
+
+        // Same database behind both pools: a committed write is visible to the next read
+        assertEquals("Routed", bookRepository.findById(book.getId()).get().getTitle());
+        assertEquals("read", readPool.getPoolName());
+    }
+}
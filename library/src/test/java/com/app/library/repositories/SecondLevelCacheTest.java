@@ -0,0 +1,107 @@
+package com.app.library.repositories;
+
+import com.app.library.config.SecondLevelCacheConfig;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.services.AnalyticsService;
+import com.app.library.services.LibraryService;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.cache.CacheManager;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:secondlevelcachedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Test
+    public void cachedBookSeesEveryCopyChange() {
+        Book book = new Book("L2 Cached", "L2 Author", 2024, "L2 Genre", 2);
+        libraryService.addBook(book);
+        Long id = book.getId();
+
+        assertEquals(2, bookRepository.findById(id).get().getAvailableCopies());
+        assertTrue(entityManagerFactory.getCache().contains(Book.class, id));
+        long hits = hitCount(SecondLevelCacheConfig.BOOK_REGION);
+        assertEquals(2, bookRepository.findById(id).get().getAvailableCopies());
+        assertTrue(hitCount(SecondLevelCacheConfig.BOOK_REGION) > hits);
+
+        // The guarded bulk update behind a borrow evicts the cached copy
+        BorrowingRecord record = new BorrowingRecord(id, 21L, LocalDate.now(), null);
+        libraryService.borrowBook(record);
+        assertEquals(1, bookRepository.findById(id).get().getAvailableCopies());
+
+        libraryService.borrowBooks(22L, List.of(id), LocalDate.now());
+        assertEquals(0, bookRepository.findById(id).get().getAvailableCopies());
+
+        libraryService.returnBook(record.getId(), LocalDate.now());
+        assertEquals(1, bookRepository.findById(id).get().getAvailableCopies());
+        assertEquals(LocalDate.now(), recordRepository.findById(record.getId()).get().getReturnDate());
+    }
+
+    @Test
+    public void cachedQueryResultsFollowCopyChanges() {
+        Book book = new Book("L2 Query", "L2 Query Author", 2024, "L2 Query Genre", 1);
+        libraryService.addBook(book);
+
+        assertEquals(List.of(1), copies(bookRepository.findByGenre("L2 Query Genre")));
+        long hits = hitCount(SecondLevelCacheConfig.BOOK_QUERY_REGION);
+        assertEquals(List.of(1), copies(bookRepository.findByGenre("L2 Query Genre")));
+        assertTrue(hitCount(SecondLevelCacheConfig.BOOK_QUERY_REGION) > hits);
+
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 23L, LocalDate.now(), null));
+        assertEquals(List.of(0), copies(bookRepository.findByGenre("L2 Query Genre")));
+        assertEquals(List.of(0), copies(bookRepository.findByAuthorAndGenre("L2 Query Author", "L2 Query Genre")));
+
+        Book second = new Book("L2 Query Two", "L2 Query Author", 2024, "L2 Query Genre", 3);
+        libraryService.addBook(second);
+        assertEquals(List.of(book.getId(), second.getId()), bookRepository.findIdsByGenre("L2 Query Genre"));
+        assertEquals(List.of(0, 3), copies(bookRepository.findByGenre("L2 Query Genre")));
+    }
+
+    @Test
+    public void analyticsWritesKeepCachedBooks() {
+        Book book = new Book("L2 Analytics", "L2 Author", 2024, "L2 Genre", 2);
+        libraryService.addBook(book);
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 24L, LocalDate.now(), null));
+        bookRepository.findById(book.getId());
+
+        // Native upserts name their tables, so they do not clear the entity regions
+        analyticsService.flush();
+        assertTrue(entityManagerFactory.getCache().contains(Book.class, book.getId()));
+    }
+
+    private List<Integer> copies(List<Book> books) {
+        return books.stream().map(Book::getAvailableCopies).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long hitCount(String region) {
+        return hibernateCacheManager.getCache(region).unwrap(Cache.class).stats().hitCount();
+    }
+}
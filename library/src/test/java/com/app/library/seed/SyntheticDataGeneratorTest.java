@@ -0,0 +1,90 @@
+package com.app.library.seed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("seed")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seeddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "library.seed.books=2000",
+        "library.seed.members=300",
+        "library.seed.records=30000",
+        "library.seed.batch-size=1000"})
+public class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void zipfSamplesFollowTheDistribution() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[11];
+        int samples = 200_000;
+        for (int i = 0; i < samples; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        // P(k) = (1/k) / H(10), H(10) = 2.928968...
+        for (int k = 1; k <= 10; k++) {
+            double expected = 1.0 / k / 2.9289682539682538;
+            assertEquals(expected, counts[k] / (double) samples, 0.005, "rank " + k);
+        }
+        ZipfDistribution large = new ZipfDistribution(5_000_000, 0.8);
+        for (int i = 0; i < 1000; i++) {
+            int rank = large.sample(random);
+            assertTrue(rank >= 1 && rank <= 5_000_000);
+        }
+    }
+
+    @Test
+    public void seedsAConsistentSkewedLibrary() {
+        assertEquals(2000, count("select count(*) from books"));
+        assertEquals(300, count("select count(*) from members"));
+        assertEquals(30000, count("select count(*) from borrowing_records"));
+        assertEquals(0, count("select count(*) from books where available_copies < 0"));
+        assertEquals(0, count("select count(*) from borrowing_records where return_date > current_date or return_date < borrow_date"));
+
+        // Popular titles dominate: the ten most borrowed books take far more than their 0.5% share
+        List<Long> top = jdbcTemplate.queryForList("select count(*) c from borrowing_records group by book_id order by c desc limit 10", Long.class);
+        assertTrue(top.stream().mapToLong(Long::longValue).sum() > 30000 / 10, "top ten: " + top);
+
+        // The analytics counters were rebuilt from the seeded history
+        assertEquals(30000, count("select sum(borrow_count) from book_circulation"));
+        // New rows get ids after the seeded ones
+        assertTrue(count("select next value for books_seq") > 2000);
+    }
+
+    @Test
+    public void sameSeedGivesTheSameData() {
+        String checksum = "select sum(id * 31 + book_id * 7 + member_id + datediff('DAY', date '2000-01-01', borrow_date)"
+                + " + coalesce(datediff('DAY', borrow_date, return_date), -1)) from borrowing_records";
+        String bookChecksum = "select sum(id * available_copies) + sum(length(title)) + sum(length(author)) from books";
+        long loans = count(checksum);
+        long catalog = count(bookChecksum);
+
+        jdbcTemplate.update("delete from borrowing_records");
+        jdbcTemplate.update("delete from books");
+        jdbcTemplate.update("delete from members");
+        generator.generate(LocalDate.now());
+
+        assertEquals(loans, count(checksum));
+        assertEquals(catalog, count(bookChecksum));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
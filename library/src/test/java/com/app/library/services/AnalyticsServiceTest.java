@@ -0,0 +1,87 @@
+package com.app.library.services;
+
+import com.app.library.dto.CirculationBucket;
+import com.app.library.dto.TopBook;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.CategoryCirculation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:analyticsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        // Only the flushes the test asks for
+        "library.analytics.flush-ms=3600000"})
+public class AnalyticsServiceTest {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void countersFollowCommittedLoans() {
+        Book popular = new Book("Popular", "Analyst", 2024, "Statistics", 5);
+        Book niche = new Book("Niche", "Analyst", 2024, "Statistics", 5);
+        libraryService.addBook(popular);
+        libraryService.addBook(niche);
+        LocalDate monday = LocalDate.of(2032, 3, 1);
+        BorrowingRecord first = new BorrowingRecord(popular.getId(), 1L, monday, null);
+        libraryService.borrowBook(first);
+        libraryService.borrowBook(new BorrowingRecord(popular.getId(), 2L, monday.plusDays(1), null));
+        libraryService.borrowBook(new BorrowingRecord(niche.getId(), 3L, monday.plusDays(1), null));
+        libraryService.returnBook(first.getId(), monday.plusDays(8));
+        // A borrow that fails leaves nothing behind; the committed ones are stored until the flush
+        Book gone = new Book("Gone", "Analyst", 2024, "Statistics", 0);
+        libraryService.addBook(gone);
+        assertThrows(IllegalStateException.class,
+                () -> libraryService.borrowBook(new BorrowingRecord(gone.getId(), 4L, monday, null)));
+        assertEquals(4, outboxSize());
+        analyticsService.flush();
+        assertEquals(0, outboxSize());
+
+        List<TopBook> top = analyticsService.topBooks("Statistics", null, 10);
+        assertEquals(List.of(popular.getId(), niche.getId()), top.stream().map(TopBook::bookId).toList());
+        assertEquals(2, top.get(0).borrowCount());
+        assertEquals(1, top.get(0).returnCount());
+        assertEquals("Popular", top.get(0).title());
+
+        CategoryCirculation genre = analyticsService.topCategories(CategoryCirculation.Kind.GENRE, 100).stream()
+                .filter(category -> category.getName().equals("Statistics")).findFirst().get();
+        assertEquals(3, genre.getBorrowCount());
+        assertEquals(1, genre.getReturnCount());
+
+        List<CirculationBucket> days = analyticsService.circulation(monday, monday.plusDays(2), AnalyticsService.Bucket.DAY);
+        assertEquals(List.of(1L, 2L, 0L), days.stream().map(CirculationBucket::borrowCount).toList());
+        List<CirculationBucket> weeks = analyticsService.circulation(monday, monday.plusDays(13), AnalyticsService.Bucket.WEEK);
+        assertEquals(2, weeks.size());
+        assertEquals(3, weeks.get(0).borrowCount());
+        assertEquals(1, weeks.get(1).returnCount());
+
+        // Moving the book to another genre moves its row, not the genre totals of past loans
+        Book moved = new Book("Popular", "Analyst", 2024, "Probability", 5);
+        moved.setId(popular.getId());
+        libraryService.updateBook(moved);
+        analyticsService.flush();
+        assertEquals(List.of(popular.getId()), analyticsService.topBooks("Probability", null, 10).stream().map(TopBook::bookId).toList());
+        assertTrue(analyticsService.topCategories(CategoryCirculation.Kind.GENRE, 100).stream()
+                .noneMatch(category -> category.getName().equals("Probability")));
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("select count(*) from circulation_outbox", Integer.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.library.services;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:availabilitydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class AvailabilityIndexTest {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Test
+    public void tracksEarliestDueDateAcrossBorrowsAndReturns() {
+        Book book = new Book("Popular", "Author", 2020, "Fiction", 2);
+        libraryService.addBook(book);
+        LocalDate today = LocalDate.now();
+        BorrowingRecord later = new BorrowingRecord(book.getId(), 1L, today, today.plusDays(20));
+        BorrowingRecord sooner = new BorrowingRecord(book.getId(), 2L, today, today.plusDays(5));
+
+        assertEquals(today, libraryService.checkAvailability(book.getId()));
+        libraryService.borrowBook(later);
+        libraryService.borrowBook(sooner);
+        assertTrue(availabilityIndex.isReady());
+        assertEquals(today.plusDays(5), libraryService.checkAvailability(book.getId()));
+
+        libraryService.returnBook(sooner.getId(), today);
+        assertEquals(today, libraryService.checkAvailability(book.getId()));
+        assertEquals(today.plusDays(20), availabilityIndex.earliestDueDate(book.getId()));
+
+        libraryService.returnBook(later.getId(), today);
+        assertEquals(null, availabilityIndex.earliestDueDate(book.getId()));
+    }
+
+    @Test
+    public void rebuildLoadsActiveLoansFromTheDatabase() {
+        Book book = new Book("Rebuilt", "Author", 2020, "Fiction", 1);
+        libraryService.addBook(book);
+        LocalDate today = LocalDate.now();
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 3L, today, today.plusDays(9)));
+
+        availabilityIndex.rebuild();
+
+        assertEquals(today.plusDays(9), availabilityIndex.earliestDueDate(book.getId()));
+        assertEquals(today.plusDays(9), libraryService.checkAvailability(book.getId()));
+    }
+}
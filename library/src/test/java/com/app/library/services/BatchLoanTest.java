@@ -0,0 +1,93 @@
+package com.app.library.services;
+
+import com.app.library.dto.BatchItemResult;
+import com.app.library.dto.BatchResult;
+import com.app.library.dto.HoldView;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.Hold;
+import com.app.library.repositories.BorrowingRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batchloandb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class BatchLoanTest {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Test
+    public void batchBorrowIsAllOrNothing() {
+        Book first = new Book("Batch One", "Author", 2024, "Fiction", 2);
+        Book second = new Book("Batch Two", "Author", 2024, "Fiction", 1);
+        libraryService.addBook(first);
+        libraryService.addBook(second);
+        LocalDate today = LocalDate.now();
+
+        // Two copies of the second book, but only one exists: nothing is borrowed
+        BatchResult rejected = libraryService.borrowBooks(7L, List.of(first.getId(), second.getId(), second.getId(), 999_999L), today);
+        assertFalse(rejected.applied());
+        assertEquals(List.of(BatchItemResult.Status.SKIPPED, BatchItemResult.Status.SKIPPED,
+                BatchItemResult.Status.UNAVAILABLE, BatchItemResult.Status.NOT_FOUND),
+                rejected.items().stream().map(BatchItemResult::status).toList());
+        assertEquals(2, libraryService.getBookById(first.getId()).getAvailableCopies());
+        assertEquals(1, libraryService.getBookById(second.getId()).getAvailableCopies());
+
+        BatchResult borrowed = libraryService.borrowBooks(7L, List.of(first.getId(), first.getId(), second.getId()), today);
+        assertTrue(borrowed.applied());
+        for (BatchItemResult item : borrowed.items()) {
+            assertEquals(BatchItemResult.Status.BORROWED, item.status());
+            BorrowingRecord record = recordRepository.findById(item.recordId()).get();
+            assertEquals(item.id(), record.getBookId());
+            assertEquals(7L, record.getMemberId());
+            assertEquals(today.plusDays(14), record.getDueDate());
+        }
+        assertEquals(0, libraryService.getBookById(first.getId()).getAvailableCopies());
+        assertEquals(0, libraryService.getBookById(second.getId()).getAvailableCopies());
+    }
+
+    @Test
+    public void batchReturnPutsCopiesBackAndServesHolds() {
+        Book shelved = new Book("Batch Shelved", "Author", 2024, "Fiction", 1);
+        Book held = new Book("Batch Held", "Author", 2024, "Fiction", 2);
+        libraryService.addBook(shelved);
+        libraryService.addBook(held);
+        LocalDate today = LocalDate.now();
+        List<Long> recordIds = libraryService.borrowBooks(8L, List.of(shelved.getId(), held.getId(), held.getId()), today)
+                .items().stream().map(BatchItemResult::recordId).toList();
+        HoldView hold = holdService.placeHold(held.getId(), 9L);
+        assertEquals(Hold.Status.WAITING, hold.status());
+
+        BatchResult rejected = libraryService.returnBooks(List.of(recordIds.get(0), 999_999L), today);
+        assertFalse(rejected.applied());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, rejected.items().get(1).status());
+        assertNull(recordRepository.findById(recordIds.get(0)).get().getReturnDate());
+
+        BatchResult returned = libraryService.returnBooks(recordIds, today);
+        assertTrue(returned.applied());
+        assertTrue(returned.items().stream().allMatch(item -> item.status() == BatchItemResult.Status.RETURNED));
+        assertEquals(1, libraryService.getBookById(shelved.getId()).getAvailableCopies());
+        // One of the two returned copies went to the waiting hold
+        assertEquals(1, libraryService.getBookById(held.getId()).getAvailableCopies());
+        assertEquals(Hold.Status.FULFILLED, holdService.getHold(hold.id()).get().status());
+
+        BatchResult again = libraryService.returnBooks(List.of(recordIds.get(0)), today);
+        assertFalse(again.applied());
+        assertEquals(BatchItemResult.Status.ALREADY_RETURNED, again.items().get(0).status());
+    }
+}
@@ -0,0 +1,111 @@
+package com.app.library.services;
+
+import com.app.library.dto.CacheStatistics;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cachedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class CatalogCacheTest {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Test
+    public void borrowAndReturnInvalidateAvailableCopies() {
+        Book book = new Book("Cached", "Cache Author", 2020, "Cache Genre", 2);
+        libraryService.addBook(book);
+        long hitsBefore = catalogCache.statistics().get(CatalogCache.BOOKS).hitCount();
+
+        assertEquals(2, libraryService.getBookById(book.getId()).getAvailableCopies());
+        assertEquals(2, libraryService.getBookById(book.getId()).getAvailableCopies());
+        assertTrue(catalogCache.statistics().get(CatalogCache.BOOKS).hitCount() > hitsBefore);
+
+        BorrowingRecord record = new BorrowingRecord(book.getId(), 1L, LocalDate.now(), null);
+        libraryService.borrowBook(record);
+        assertEquals(1, libraryService.getBookById(book.getId()).getAvailableCopies());
+        assertEquals(1, libraryService.getBooksByGenre("Cache Genre").iterator().next().getAvailableCopies());
+
+        libraryService.returnBook(record.getId(), LocalDate.now());
+        assertEquals(2, libraryService.getBooksByAuthorAndGenre("Cache Author", null).iterator().next().getAvailableCopies());
+    }
+
+    @Test
+    public void updateAndDeleteInvalidateResultLists() {
+        Book book = new Book("Mover", "Mover Author", 2020, "Before", 1);
+        libraryService.addBook(book);
+        assertEquals(1, libraryService.getBooksByGenre("Before").size());
+        assertEquals(0, libraryService.getBooksByGenre("After").size());
+
+        Book moved = new Book("Mover", "Mover Author", 2020, "After", 1);
+        moved.setId(book.getId());
+        libraryService.updateBook(moved);
+        assertEquals(0, libraryService.getBooksByGenre("Before").size());
+        assertEquals(1, libraryService.getBooksByGenre("After").size());
+        assertEquals(1, libraryService.getBooksByAuthorAndGenre("Mover Author", "After").size());
+
+        libraryService.deleteBook(book.getId());
+        assertNull(libraryService.getBookById(book.getId()));
+        assertEquals(0, libraryService.getBooksByGenre("After").size());
+        assertEquals(0, libraryService.getBooksByAuthorAndGenre("Mover Author", null).size());
+    }
+
+    @Test
+    public void loadThatRacesAnInvalidationIsNotKept() {
+        CatalogCache cache = new CatalogCache();
+        AtomicReference<Runnable> beforeNextPut = new AtomicReference<>();
+        ReflectionTestUtils.setField(cache, "cacheManager", new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    public void put(Object key, Object value) {
+                        Runnable hook = beforeNextPut.getAndSet(null);
+                        if (hook != null) {
+                            hook.run();
+                        }
+                        super.put(key, value);
+                    }
+                };
+            }
+        });
+        Book stale = new Book("Stale", "Race Author", 2020, "Race Genre", 1);
+        stale.setId(42L);
+        Book fresh = new Book("Fresh", "Race Author", 2020, "Race Genre", 0);
+        fresh.setId(42L);
+
+        // The commit lands after the loader checked the generation but before its put
+        beforeNextPut.set(() -> cache.onBookChanged(BookChangedEvent.inventory(42L)));
+        assertEquals("Stale", cache.getBook(42L, () -> stale).getTitle());
+        assertEquals("Fresh", cache.getBook(42L, () -> fresh).getTitle());
+
+        beforeNextPut.set(() -> cache.onBookChanged(BookChangedEvent.created(fresh)));
+        assertTrue(cache.getBooksByGenre("Race Genre", List::of, ids -> List.of()).isEmpty());
+        assertEquals(List.of(fresh), cache.getBooksByGenre("Race Genre", () -> List.of(42L), ids -> List.of(fresh)));
+    }
+
+    @Test
+    public void statisticsCoverEveryRegion() {
+        CacheStatistics members = catalogCache.statistics().get(CatalogCache.MEMBERS);
+        assertEquals(4, catalogCache.statistics().size());
+        assertTrue(members.hitCount() >= 0 && members.missCount() >= 0);
+    }
+}
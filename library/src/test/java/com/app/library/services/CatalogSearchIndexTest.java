@@ -0,0 +1,100 @@
+package com.app.library.services;
+
+import com.app.library.dto.BookSearchHit;
+import com.app.library.events.BookChangedEvent;
+import com.app.library.models.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:searchdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class CatalogSearchIndexTest {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private CatalogSearchIndex searchIndex;
+
+    private List<String> titles(String query) {
+        return libraryService.searchBooks(query, 10).stream().map(BookSearchHit::title).toList();
+    }
+
+    @Test
+    public void ranksExactTitleMatchesBeforePrefixAndAuthorMatches() {
+        libraryService.addBook(new Book("The Rosewood Garden", "Ana Lima", 2001, "Fiction", 1));
+        libraryService.addBook(new Book("Rose", "Ana Lima", 2003, "Poetry", 1));
+        libraryService.addBook(new Book("Night Letters", "Maria Rose", 2010, "Fiction", 1));
+
+        assertEquals(List.of("Rose", "Night Letters", "The Rosewood Garden"), titles("rose"));
+        assertEquals(List.of("The Rosewood Garden"), titles("ROSEW gard"));
+        assertEquals(List.of("Rose", "The Rosewood Garden"), titles("lima ros"));
+        assertTrue(titles("rose unknownword").isEmpty());
+    }
+
+    @Test
+    public void followsUpdatesAndDeletesAndFoldsAccents() {
+        Book book = new Book("Cien años de soledad", "Gabriel García Márquez", 1967, "Fiction", 1);
+        libraryService.addBook(book);
+        assertEquals(List.of("Cien años de soledad"), titles("garcia marq"));
+
+        Book renamed = new Book("One Hundred Years of Solitude", "Gabriel García Márquez", 1967, "Fiction", 1);
+        renamed.setId(book.getId());
+        libraryService.updateBook(renamed);
+        assertTrue(titles("soledad").isEmpty());
+        assertEquals(List.of("One Hundred Years of Solitude"), titles("solit"));
+
+        libraryService.deleteBook(book.getId());
+        assertTrue(titles("solitude").isEmpty());
+    }
+
+    @Test
+    public void ranksEveryMatchOfACommonWord() {
+        // More matches than any candidate cut-off, the best one added last (highest id)
+        CatalogSearchIndex index = new CatalogSearchIndex();
+        for (long id = 1; id <= 25_000; id++) {
+            index.onBookChanged(BookChangedEvent.created(book(id, "Common Volume " + id)));
+        }
+        index.onBookChanged(BookChangedEvent.created(book(25_001L, "Common")));
+
+        List<BookSearchHit> hits = index.search("common", 3);
+        assertEquals(List.of(25_001L, 1L, 2L), hits.stream().map(BookSearchHit::id).toList());
+    }
+
+    @Test
+    public void findsMatchesOfEveryTermAPrefixExpandsTo() {
+        // 100 other "ha..." terms sort before the only word of the best match
+        CatalogSearchIndex index = new CatalogSearchIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.onBookChanged(BookChangedEvent.created(book(id, "Hab" + (1000 + id) + " Long Title")));
+        }
+        index.onBookChanged(BookChangedEvent.created(book(101L, "Hazel")));
+
+        assertEquals(101L, index.search("ha", 5).get(0).id());
+        assertEquals(List.of(101L), index.search("haz", 5).stream().map(BookSearchHit::id).toList());
+    }
+
+    private static Book book(Long id, String title) {
+        Book book = new Book(title, "Author", 2020, "Fiction", 1);
+        book.setId(id);
+        return book;
+    }
+
+    @Test
+    public void rebuildLoadsBooksFromTheDatabase() {
+        libraryService.addBook(new Book("Quiet Harbour", "Tomas Berg", 2015, "Fiction", 1));
+
+        // Not searchable before the first load
+        assertFalse(new CatalogSearchIndex().isReady());
+        searchIndex.rebuild();
+
+        assertTrue(searchIndex.isReady());
+        assertEquals(List.of("Quiet Harbour"), titles("harb"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.app.library.services;
+
+import com.app.library.dto.BackupInfo;
+import com.app.library.dto.CacheStatistics;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import org.h2.tools.Restore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "library.persistence.dir=target/persistent-test/db",
+        "library.persistence.backup-dir=target/persistent-test/backups",
+        "library.persistence.backups-kept=2",
+        "library.persistence.warm-books=0"})
+@ActiveProfiles("persistent")
+public class DatabaseBackupServiceTest {
+
+    @Autowired
+    private DatabaseBackupService backupService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Test
+    public void backupCanBeRestoredAndOldOnesArePruned() throws Exception {
+        Book book = new Book("Snapshot " + System.nanoTime(), "Author", 2024, "Fiction", 1);
+        libraryService.addBook(book);
+
+        backupService.backup();
+        backupService.backup();
+        BackupInfo latest = backupService.backup();
+        List<BackupInfo> backups = backupService.backups();
+        assertEquals(2, backups.size());
+        assertEquals(latest.file(), backups.get(0).file());
+
+        Path restored = Path.of("target/persistent-test/restored-" + System.nanoTime());
+        Files.createDirectories(restored);
+        Restore.execute(latest.file(), restored.toString(), "librarydb");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:nioMapped:./" + restored + "/librarydb", "sa", "");
+             PreparedStatement statement = connection.prepareStatement("select count(*) from books where title = ?")) {
+            statement.setString(1, book.getTitle());
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                assertEquals(1, result.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    public void warmStartLoadsRecentlyBorrowedBooksIntoTheCache() {
+        Book book = new Book("Warm " + System.nanoTime(), "Author", 2024, "Fiction", 1);
+        libraryService.addBook(book);
+        libraryService.borrowBook(new BorrowingRecord(book.getId(), 1L, LocalDate.now(), null));
+
+        backupService.preloadRecentBooks(100);
+        CacheStatistics before = catalogCache.statistics().get(CatalogCache.BOOKS);
+        libraryService.getBookById(book.getId());
+        assertEquals(before.hitCount() + 1, catalogCache.statistics().get(CatalogCache.BOOKS).hitCount());
+    }
+}
@@ -0,0 +1,179 @@
+package com.app.library.services;
+
+import com.app.library.dto.BatchItemResult;
+import com.app.library.dto.BatchResult;
+import com.app.library.dto.HoldView;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.Hold;
+import com.app.library.repositories.BookRepository;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.app.library.repositories.HoldRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:holddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class HoldServiceTest {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    public void returnedCopiesGoToWaitingHoldsInOrder() {
+        Book book = new Book("Reserved", "Author", 2024, "Fiction", 1);
+        libraryService.addBook(book);
+
+        HoldView first = holdService.placeHold(book.getId(), 1L);
+        assertEquals(Hold.Status.FULFILLED, first.status());
+        HoldView second = holdService.placeHold(book.getId(), 2L);
+        HoldView third = holdService.placeHold(book.getId(), 3L);
+        assertEquals(Hold.Status.WAITING, second.status());
+        assertEquals(1, second.position());
+        assertEquals(2, holdService.getHold(third.id()).get().position());
+        assertThrows(IllegalStateException.class, () -> holdService.placeHold(book.getId(), 2L));
+
+        libraryService.returnBook(first.recordId(), LocalDate.now());
+
+        HoldView served = holdService.getHold(second.id()).get();
+        assertEquals(Hold.Status.FULFILLED, served.status());
+        BorrowingRecord loan = recordRepository.findById(served.recordId()).get();
+        assertEquals(2L, loan.getMemberId());
+        assertNull(loan.getReturnDate());
+        assertEquals(0, libraryService.getBookById(book.getId()).getAvailableCopies());
+        assertEquals(1, holdService.getHold(third.id()).get().position());
+
+        assertTrue(holdService.cancelHold(third.id()));
+        libraryService.returnBook(served.recordId(), LocalDate.now());
+        assertEquals(1, libraryService.getBookById(book.getId()).getAvailableCopies());
+        assertTrue(holdService.getQueue(book.getId()).isEmpty());
+    }
+
+    // Holds placed while copies are being returned: every copy ends up either lent to a hold or on
+    // the shelf, and never on the shelf while someone is still waiting
+    @Test
+    public void concurrentHoldsAndReturnsNeverStrandACopy() throws Exception {
+        int copies = 10;
+        Book book = new Book("Contended", "Author", 2024, "Fiction", copies);
+        libraryService.addBook(book);
+        List<Long> loans = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            BorrowingRecord record = new BorrowingRecord(book.getId(), 100L + i, LocalDate.now(), null);
+            libraryService.borrowBook(record);
+            loans.add(record.getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            long memberId = 1000L + i;
+            tasks.add(() -> holdService.placeHold(book.getId(), memberId));
+            if (i < copies) {
+                Long recordId = loans.get(i);
+                tasks.add(() -> {
+                    libraryService.returnBook(recordId, LocalDate.now());
+                    return null;
+                });
+            }
+        }
+        try {
+            for (Future<Object> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Hold> holds = holdRepository.findAll().stream().filter(h -> h.getBookId().equals(book.getId())).toList();
+        long fulfilled = holds.stream().filter(h -> h.getStatus() == Hold.Status.FULFILLED).count();
+        long waiting = holds.stream().filter(h -> h.getStatus() == Hold.Status.WAITING).count();
+        int available = libraryService.getBookById(book.getId()).getAvailableCopies();
+        assertEquals(copies, fulfilled + available);
+        assertEquals(30, fulfilled + waiting);
+        assertTrue(available == 0 || waiting == 0);
+    }
+
+    // A walk-in borrow racing the return that serves a waiting hold never gets the copy
+    @Test
+    public void directBorrowsCannotJumpTheHoldQueue() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                Book book = new Book("Queued " + round, "Author", 2024, "Fiction", 1);
+                libraryService.addBook(book);
+                HoldView lent = holdService.placeHold(book.getId(), 1L);
+                HoldView waiting = holdService.placeHold(book.getId(), 2L);
+
+                Future<?> returned = pool.submit(() -> libraryService.returnBook(lent.recordId(), LocalDate.now()));
+                Future<?> walkIn = pool.submit(() -> libraryService.borrowBook(new BorrowingRecord(book.getId(), 9L, null, null)));
+                returned.get();
+                Exception refused = assertThrows(Exception.class, walkIn::get);
+                assertTrue(refused.getCause() instanceof IllegalStateException);
+
+                assertEquals(Hold.Status.FULFILLED, holdService.getHold(waiting.id()).get().status());
+                assertEquals(0, libraryService.getBookById(book.getId()).getAvailableCopies());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void borrowsAndRestocksServeTheQueueFirst() {
+        Book book = new Book("Restocked", "Author", 2024, "Fiction", 0);
+        libraryService.addBook(book);
+        HoldView first = holdService.placeHold(book.getId(), 1L);
+        HoldView second = holdService.placeHold(book.getId(), 2L);
+        assertEquals(Hold.Status.WAITING, first.status());
+
+        // Copies added to the stock go to the queue
+        Book restock = new Book("Restocked", "Author", 2024, "Fiction", 1);
+        restock.setId(book.getId());
+        libraryService.updateBook(restock);
+        assertEquals(Hold.Status.FULFILLED, holdService.getHold(first.id()).get().status());
+        assertEquals(0, libraryService.getBookById(book.getId()).getAvailableCopies());
+
+        // A copy that reached the shelf behind the queue's back is still only lent to its head
+        bookRepository.incrementAvailableCopies(book.getId());
+        assertThrows(IllegalStateException.class,
+                () -> libraryService.borrowBook(new BorrowingRecord(book.getId(), 9L, null, null)));
+        BatchResult refused = libraryService.borrowBooks(9L, List.of(book.getId()), LocalDate.now());
+        assertFalse(refused.applied());
+        assertEquals(BatchItemResult.Status.RESERVED, refused.items().get(0).status());
+        assertEquals(BatchItemResult.Status.RESERVED,
+                libraryService.borrowBooks(2L, List.of(book.getId(), book.getId()), LocalDate.now()).items().get(1).status());
+
+        BatchResult borrowed = libraryService.borrowBooks(2L, List.of(book.getId()), LocalDate.now());
+        assertTrue(borrowed.applied());
+        HoldView served = holdService.getHold(second.id()).get();
+        assertEquals(Hold.Status.FULFILLED, served.status());
+        assertEquals(borrowed.items().get(0).recordId(), served.recordId());
+        assertTrue(holdService.getQueue(book.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.library.services;
+
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:inventorydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class InventoryConcurrencyTest {
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Test
+    public void concurrentBorrowsNeverOversellOneTitle() throws Exception {
+        Book book = new Book("Hot Title", "Author", 2024, "Fiction", 25);
+        libraryService.addBook(book);
+
+        int successes = borrowConcurrently(List.of(book.getId()), 400);
+
+        assertEquals(25, successes);
+        assertEquals(0, libraryService.getBookById(book.getId()).getAvailableCopies());
+    }
+
+    @Test
+    public void concurrentBorrowsAcrossBooksKeepExactCounts() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Book book = new Book("Title " + i, "Author", 2024, "Fiction", 20);
+            libraryService.addBook(book);
+            ids.add(book.getId());
+        }
+
+        int successes = borrowConcurrently(ids, 8 * 15);
+
+        assertEquals(8 * 15, successes);
+        for (Long id : ids) {
+            assertEquals(5, libraryService.getBookById(id).getAvailableCopies());
+        }
+    }
+
+    @Test
+    public void returningTwiceOnlyRestoresOneCopy() {
+        Book book = new Book("Returned", "Author", 2024, "Fiction", 1);
+        libraryService.addBook(book);
+        BorrowingRecord record = new BorrowingRecord(book.getId(), 1L, LocalDate.now(), LocalDate.now().plusDays(14));
+        libraryService.borrowBook(record);
+
+        libraryService.returnBook(record.getId(), LocalDate.now());
+        assertThrows(IllegalStateException.class, () -> libraryService.returnBook(record.getId(), LocalDate.now()));
+        assertEquals(1, libraryService.getBookById(book.getId()).getAvailableCopies());
+    }
+
+    // Fire the given number of borrows, spread round-robin over the books, and count the ones that succeeded
+    private int borrowConcurrently(List<Long> bookIds, int attempts) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                Long bookId = bookIds.get(i % bookIds.size());
+                long memberId = i;
+                tasks.add(() -> {
+                    try {
+                        libraryService.borrowBook(new BorrowingRecord(bookId, memberId, LocalDate.now(), null));
+                        return true;
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                });
+            }
+            int successes = 0;
+            for (Future<Boolean> result : pool.invokeAll(tasks)) {
+                if (result.get()) {
+                    successes++;
+                }
+            }
+            return successes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
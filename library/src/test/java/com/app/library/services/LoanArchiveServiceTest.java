@@ -0,0 +1,126 @@
+package com.app.library.services;
+
+import com.app.library.dto.ArchiveStats;
+import com.app.library.dto.BatchItemResult;
+import com.app.library.dto.BatchResult;
+import com.app.library.dto.LoanExportRow;
+import com.app.library.dto.MemberDashboard;
+import com.app.library.models.Book;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.Member;
+import com.app.library.repositories.ArchivedBorrowingRecordRepository;
+import com.app.library.repositories.BorrowingRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "library.archive.min-age-days=365",
+        "library.archive.batch-size=7"})
+public class LoanArchiveServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private LoanArchiveService archiveService;
+
+    @Autowired
+    private LibraryService libraryService;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private ArchivedBorrowingRecordRepository archiveRepository;
+
+    @Test
+    public void oldReturnedLoansMoveAndHistoryReadsSeeBothStores() {
+        Book book = new Book("Archive Book", "Author", 2020, "History", 50);
+        libraryService.addBook(book);
+        Member member = new Member("Archive Member", "archive@example.org", "555-0000", TODAY.minusYears(5), TODAY.plusYears(1));
+        libraryService.addMember(member);
+
+        // One loan a week for three years: returned after ten days, except the last two still open;
+        // an old loan that was never returned must stay hot whatever its age
+        List<BorrowingRecord> loans = new ArrayList<>();
+        for (int week = 156; week >= 0; week--) {
+            LocalDate borrowed = TODAY.minusWeeks(week);
+            BorrowingRecord loan = new BorrowingRecord(book.getId(), member.getId(), borrowed, borrowed.plusDays(14));
+            if (week > 1) {
+                loan.setReturnDate(borrowed.plusDays(10));
+                if (week % 10 == 0) {
+                    loan.setFine(new BigDecimal("1.25"));
+                }
+            }
+            loans.add(loan);
+        }
+        loans.get(3).setReturnDate(null);
+        recordRepository.saveAll(loans);
+        long expectedMoved = loans.stream()
+                .filter(loan -> loan.getReturnDate() != null && loan.getReturnDate().isBefore(TODAY.minusDays(365)))
+                .count();
+
+        MemberDashboard dashboardBefore = libraryService.getMemberDashboard(member.getId(), 200);
+        List<LoanExportRow> exportBefore = export(member.getId());
+        List<String> dueBefore = due();
+        List<Long> idsBefore = libraryService.getAllBorrowingRecords().stream().map(BorrowingRecord::getId).toList();
+
+        ArchiveStats stats = archiveService.archive(TODAY);
+        assertFalse(stats.running());
+        assertEquals(expectedMoved, stats.moved());
+        assertTrue(stats.batches() > 1);
+        assertEquals(expectedMoved, archiveRepository.count());
+        assertEquals(loans.size() - expectedMoved, recordRepository.count());
+        for (BorrowingRecord hot : recordRepository.findAll()) {
+            assertTrue(hot.getReturnDate() == null || !hot.getReturnDate().isBefore(TODAY.minusDays(365)));
+        }
+        assertTrue(recordRepository.existsById(loans.get(3).getId()));
+
+        // Callers cannot tell which store a loan lives in
+        MemberDashboard dashboardAfter = libraryService.getMemberDashboard(member.getId(), 200);
+        assertEquals(dashboardBefore.activeLoans(), dashboardAfter.activeLoans());
+        assertEquals(dashboardBefore.history(), dashboardAfter.history());
+        assertEquals(dashboardBefore.totalLoans(), dashboardAfter.totalLoans());
+        assertEquals(0, dashboardBefore.totalFines().compareTo(dashboardAfter.totalFines()));
+        assertEquals(dashboardBefore.history().subList(0, 20),
+                libraryService.getMemberDashboard(member.getId(), 20).history());
+        assertEquals(exportBefore, export(member.getId()));
+        assertEquals(dueBefore, due());
+        assertTrue(archiveService.mayHoldLoansDueFrom(TODAY.minusYears(1)));
+        assertFalse(archiveService.mayHoldLoansDueFrom(TODAY));
+        assertEquals(idsBefore, libraryService.getAllBorrowingRecords().stream().map(BorrowingRecord::getId).toList());
+
+        // An archived loan was returned long ago
+        Long archivedId = loans.get(0).getId();
+        assertThrows(IllegalStateException.class, () -> libraryService.returnBook(archivedId, TODAY));
+        BatchResult batch = libraryService.returnBooks(List.of(archivedId), TODAY);
+        assertFalse(batch.applied());
+        assertEquals(BatchItemResult.Status.ALREADY_RETURNED, batch.items().get(0).status());
+
+        // Nothing left to move
+        assertEquals(0, archiveService.archive(TODAY).moved());
+    }
+
+    private List<String> due() {
+        return libraryService.getLoansDueBetween(TODAY.minusYears(4), TODAY.plusYears(1)).stream()
+                .map(loan -> loan.recordId() + " " + loan.dueDate() + " " + loan.returnDate() + " " + loan.book().getId())
+                .toList();
+    }
+
+    private List<LoanExportRow> export(Long memberId) {
+        List<LoanExportRow> rows = new ArrayList<>();
+        libraryService.exportBorrowingRecords(memberId, null, null, rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.library.services;
+
+import com.app.library.dto.OverdueScanStats;
+import com.app.library.models.BorrowingRecord;
+import com.app.library.models.JobCheckpoint;
+import com.app.library.repositories.BorrowingRecordRepository;
+import com.app.library.repositories.JobCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:overduedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "library.overdue.chunk-size=7",
+        "library.overdue.parallelism=3"})
+public class OverdueScanServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private OverdueScanService overdueScanService;
+
+    @Autowired
+    private BorrowingRecordRepository recordRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    public void clean() {
+        recordRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    // Loans due 1..count days before TODAY; every third one already returned
+    private List<BorrowingRecord> seed(int count) {
+        List<BorrowingRecord> records = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            BorrowingRecord record = new BorrowingRecord(1L, 1L, TODAY.minusDays(i + 14), TODAY.minusDays(i));
+            if (i % 3 == 0) {
+                record.setReturnDate(TODAY);
+            }
+            records.add(record);
+        }
+        records.add(new BorrowingRecord(1L, 1L, TODAY, TODAY.plusDays(14)));
+        return recordRepository.saveAll(records);
+    }
+
+    @Test
+    public void flagsOpenOverdueLoansWithCappedFines() {
+        seed(100);
+
+        OverdueScanStats stats = overdueScanService.scan(TODAY);
+
+        assertTrue(stats.completed());
+        assertEquals(67, stats.scanned());
+        assertEquals(67, stats.flagged());
+        for (BorrowingRecord record : recordRepository.findAll()) {
+            boolean open = record.getReturnDate() == null && record.getDueDate().isBefore(TODAY);
+            assertEquals(open, record.isOverdue());
+            if (open) {
+                long days = TODAY.toEpochDay() - record.getDueDate().toEpochDay();
+                BigDecimal expected = BigDecimal.valueOf(Math.min(days * 25, 2000), 2);
+                assertEquals(expected, record.getFine());
+                assertEquals(TODAY, record.getFineAssessedOn());
+            } else {
+                assertNull(record.getFine());
+            }
+        }
+        // A second run the same day finds the completed checkpoint and does nothing
+        assertEquals(67, overdueScanService.scan(TODAY).scanned());
+    }
+
+    @Test
+    public void resumesAfterTheCheckpointOfAnInterruptedRun() {
+        List<BorrowingRecord> records = seed(30);
+        long resumeAfter = records.get(14).getId();
+        JobCheckpoint checkpoint = new JobCheckpoint(OverdueScanService.JOB_NAME, TODAY);
+        checkpoint.setLastId(resumeAfter);
+        checkpointRepository.save(checkpoint);
+
+        OverdueScanStats stats = overdueScanService.scan(TODAY);
+
+        assertTrue(stats.completed());
+        for (BorrowingRecord record : recordRepository.findAll()) {
+            if (record.getId() <= resumeAfter) {
+                assertFalse(record.isOverdue());
+            }
+        }
+        assertEquals(10, stats.flagged());
+    }
+}